@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.lock;
+import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.unlock;
+
+/**
+ * Measures how fast threads can acquire and release their own locks, while other threads are blocked waiting for a lock
+ * of another owner that is never released during the measurement.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResourceLockCoordinationBenchmark {
+    @Param({"0", "16"})
+    int blockedThreads;
+
+    DefaultResourceLockCoordinationService coordinationService;
+    ResourceLockContainer owner;
+    BlockedLock blockedLock;
+    List<Thread> threads;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        coordinationService = new DefaultResourceLockCoordinationService();
+        owner = new NoOpContainer();
+        blockedLock = new BlockedLock(coordinationService);
+        threads = new ArrayList<Thread>();
+        for (int i = 0; i < blockedThreads; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    coordinationService.withStateLock(lock(blockedLock));
+                    coordinationService.withStateLock(unlock(blockedLock));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        blockedLock.released = true;
+        coordinationService.notifyStateChange();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadLock {
+        ResourceLock lock;
+
+        @Setup(Level.Trial)
+        public void setup(ResourceLockCoordinationBenchmark benchmark) {
+            lock = new ExclusiveAccessResourceLock("thread lock", benchmark.coordinationService, benchmark.owner);
+        }
+    }
+
+    @Benchmark
+    public void acquireAndRelease(ThreadLock threadLock) {
+        coordinationService.withStateLock(lock(threadLock.lock));
+        coordinationService.withStateLock(unlock(threadLock.lock));
+    }
+
+    private static class BlockedLock extends ExclusiveAccessResourceLock {
+        volatile boolean released;
+
+        BlockedLock(ResourceLockCoordinationService coordinationService) {
+            super("blocked lock", coordinationService, new NoOpContainer());
+        }
+
+        @Override
+        protected boolean canAcquire() {
+            return released;
+        }
+    }
+
+    private static class NoOpContainer implements ResourceLockContainer {
+        @Override
+        public void lockAcquired(ResourceLock lock) {
+        }
+
+        @Override
+        public void lockReleased(ResourceLock lock) {
+        }
+    }
+}
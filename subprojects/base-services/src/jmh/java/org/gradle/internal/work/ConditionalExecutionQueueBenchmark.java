@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.work;
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.DefaultParallelismConfiguration;
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes for the work items of several tasks to complete, while another task has submitted many small work items before them.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConditionalExecutionQueueBenchmark {
+    private static final int MAX_WORKERS = 4;
+    private static final int ITEMS_PER_TASK = 10;
+    private static final long WORK_TOKENS = 10000;
+
+    @Param({"true", "false"})
+    boolean fairScheduling;
+
+    @Param({"5000"})
+    int manySmallItems;
+
+    @Param({"8"})
+    int otherTasks;
+
+    private DefaultWorkerLeaseService workerLeaseService;
+    private DefaultConditionalExecutionQueue<Object> queue;
+    private final List<ConditionalExecution<Object>> manySmallItemsExecutions = new ArrayList<ConditionalExecution<Object>>();
+
+    @Setup(Level.Trial)
+    public void createQueue() {
+        workerLeaseService = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), new DefaultParallelismConfiguration(true, MAX_WORKERS));
+        queue = new DefaultConditionalExecutionQueue<Object>("benchmark", MAX_WORKERS, new DefaultExecutorFactory(), workerLeaseService);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopQueue() {
+        queue.stop();
+        workerLeaseService.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void submitManySmallItems() {
+        for (int i = 0; i < manySmallItems; i++) {
+            ConditionalExecution<Object> execution = new WorkItem();
+            manySmallItemsExecutions.add(execution);
+            submit("many-small-items", execution);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitManySmallItems() {
+        for (ConditionalExecution<Object> execution : manySmallItemsExecutions) {
+            execution.await();
+        }
+        manySmallItemsExecutions.clear();
+    }
+
+    @Benchmark
+    public void otherTasksComplete(Blackhole bh) {
+        List<ConditionalExecution<Object>> executions = new ArrayList<ConditionalExecution<Object>>();
+        for (int task = 0; task < otherTasks; task++) {
+            for (int i = 0; i < ITEMS_PER_TASK; i++) {
+                ConditionalExecution<Object> execution = new WorkItem();
+                executions.add(execution);
+                submit("task-" + task, execution);
+            }
+        }
+        for (ConditionalExecution<Object> execution : executions) {
+            bh.consume(execution.await());
+        }
+    }
+
+    private void submit(Object group, ConditionalExecution<Object> execution) {
+        if (fairScheduling) {
+            queue.submit(group, execution);
+        } else {
+            queue.submit(execution);
+        }
+    }
+
+    private static class WorkItem extends AbstractConditionalExecution<Object> {
+        WorkItem() {
+            super(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    Blackhole.consumeCPU(WORK_TOKENS);
+                    return null;
+                }
+            });
+        }
+    }
+}
@@ -52,6 +52,7 @@ public boolean tryLock() {
                 coordinationService.getCurrent().registerLocked(this);
                 return true;
             } else {
+                coordinationService.getCurrent().registerBlocked(this);
                 return false;
             }
         } else {
@@ -98,6 +99,10 @@ private void failIfNotInResourceLockStateChange() {
 
     abstract protected boolean doIsLockedByCurrentThread();
 
+    ResourceLockContainer getOwner() {
+        return owner;
+    }
+
     @Override
     public String getDisplayName() {
         return displayName;
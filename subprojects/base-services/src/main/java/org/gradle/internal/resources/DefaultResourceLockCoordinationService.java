@@ -17,6 +17,7 @@
 package org.gradle.internal.resources;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.gradle.api.Action;
 import org.gradle.internal.InternalTransformer;
@@ -30,43 +31,67 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Coordinates changes to the state of resource locks under a single state lock.
+ *
+ * <p>A thread that is blocked acquiring a set of locks using {@link #lock(Iterable)} waits only for locks owned by the same
+ * {@link ResourceLockContainer}s as those it failed to acquire to be released, rather than for any state change. Other threads
+ * waiting to retry are woken by any state change.</p>
+ */
 public class DefaultResourceLockCoordinationService implements ResourceLockCoordinationService, Closeable {
-    private final Object lock = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final Map<ResourceLockContainer, Set<LockWaiter>> lockWaiters = Maps.newHashMap();
     private final Set<Action<ResourceLock>> releaseHandlers = new LinkedHashSet<Action<ResourceLock>>();
     private Thread currentOwner;
     private DefaultResourceLockState currentState;
 
     @Override
     public void close() throws IOException {
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (!releaseHandlers.isEmpty()) {
                 throw new IllegalStateException("Some lock release listeners have not been removed.");
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void assertHasStateLock() {
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (getCurrent() == null) {
                 throw new IllegalStateException();
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void addLockReleaseListener(Action<ResourceLock> listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             releaseHandlers.add(listener);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void removeLockReleaseListener(Action<ResourceLock> listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             releaseHandlers.remove(listener);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -96,7 +121,8 @@ public ResourceLockState.Disposition transform(ResourceLockState resourceLockSta
 
     @Override
     public boolean withStateLock(InternalTransformer<ResourceLockState.Disposition, ResourceLockState> stateLockAction) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             DefaultResourceLockState resourceLockState = new DefaultResourceLockState();
             DefaultResourceLockState previous = startOperation(resourceLockState);
             try {
@@ -107,13 +133,11 @@ public boolean withStateLock(InternalTransformer<ResourceLockState.Disposition,
                         case RETRY:
                             resourceLockState.releaseLocks();
                             maybeNotifyStateChange(resourceLockState);
+                            // Only a plain lock acquisition is known to depend on nothing but the locks it failed to acquire
+                            Set<ResourceLockContainer> blockedOn = stateLockAction instanceof AcquireLocks ? resourceLockState.getBlockedOn() : null;
                             resourceLockState.reset();
                             finishOperation(previous);
-                            try {
-                                lock.wait();
-                            } catch (InterruptedException e) {
-                                throw UncheckedException.throwAsUncheckedException(e);
-                            }
+                            waitForStateChange(blockedOn);
                             startOperation(resourceLockState);
                             break;
                         case FINISHED:
@@ -132,6 +156,40 @@ public boolean withStateLock(InternalTransformer<ResourceLockState.Disposition,
             } finally {
                 finishOperation(previous);
             }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void waitForStateChange(@Nullable Set<ResourceLockContainer> blockedOn) {
+        try {
+            if (blockedOn == null) {
+                stateChanged.await();
+                return;
+            }
+            LockWaiter waiter = new LockWaiter(lock.newCondition());
+            for (ResourceLockContainer owner : blockedOn) {
+                Set<LockWaiter> waiters = lockWaiters.get(owner);
+                if (waiters == null) {
+                    waiters = new LinkedHashSet<LockWaiter>();
+                    lockWaiters.put(owner, waiters);
+                }
+                waiters.add(waiter);
+            }
+            try {
+                while (!waiter.woken) {
+                    waiter.condition.await();
+                }
+            } finally {
+                for (ResourceLockContainer owner : blockedOn) {
+                    Set<LockWaiter> waiters = lockWaiters.get(owner);
+                    if (waiters != null && waiters.remove(waiter) && waiters.isEmpty()) {
+                        lockWaiters.remove(owner);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
         }
     }
 
@@ -158,19 +216,29 @@ private void finishOperation(@Nullable DefaultResourceLockState previous) {
 
     @Override
     public ResourceLockState getCurrent() {
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (currentOwner != Thread.currentThread()) {
                 return null;
             } else {
                 return currentState;
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     private void maybeNotifyStateChange(DefaultResourceLockState resourceLockState) {
         Collection<ResourceLock> unlockedResources = resourceLockState.getUnlockedResources();
         if (!unlockedResources.isEmpty()) {
-            notifyStateChange();
+            stateChanged.signalAll();
+            for (ResourceLock resource : unlockedResources) {
+                if (resource instanceof AbstractTrackedResourceLock) {
+                    wakeLockWaiters(lockWaiters.get(((AbstractTrackedResourceLock) resource).getOwner()));
+                } else {
+                    wakeAllLockWaiters();
+                }
+            }
             for (ResourceLock resource : unlockedResources) {
                 for (Action<ResourceLock> releaseHandler : releaseHandlers) {
                     releaseHandler.execute(resource);
@@ -181,14 +249,50 @@ private void maybeNotifyStateChange(DefaultResourceLockState resourceLockState)
 
     @Override
     public void notifyStateChange() {
-        synchronized (lock) {
-            lock.notifyAll();
+        lock.lock();
+        try {
+            stateChanged.signalAll();
+            wakeAllLockWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void wakeAllLockWaiters() {
+        for (Set<LockWaiter> waiters : lockWaiters.values()) {
+            wakeLockWaiters(waiters);
+        }
+    }
+
+    private static void wakeLockWaiters(@Nullable Set<LockWaiter> waiters) {
+        if (waiters != null) {
+            for (LockWaiter waiter : waiters) {
+                waiter.wake();
+            }
+        }
+    }
+
+    private static class LockWaiter {
+        final Condition condition;
+        boolean woken;
+
+        LockWaiter(Condition condition) {
+            this.condition = condition;
+        }
+
+        void wake() {
+            if (!woken) {
+                woken = true;
+                condition.signal();
+            }
         }
     }
 
     private static class DefaultResourceLockState implements ResourceLockState {
         private Set<ResourceLock> lockedResources;
         private Set<ResourceLock> unlockedResources;
+        private Set<ResourceLockContainer> blockedOn;
+        private boolean blockedOnUntrackedLock;
         boolean rollback;
 
         @Override
@@ -211,6 +315,29 @@ public void registerUnlocked(ResourceLock resourceLock) {
             }
         }
 
+        @Override
+        public void registerBlocked(ResourceLock resourceLock) {
+            if (resourceLock instanceof AbstractTrackedResourceLock) {
+                if (blockedOn == null) {
+                    blockedOn = Sets.newHashSet();
+                }
+                blockedOn.add(((AbstractTrackedResourceLock) resourceLock).getOwner());
+            } else {
+                blockedOnUntrackedLock = true;
+            }
+        }
+
+        /**
+         * Returns the owners of the locks that could not be acquired, or null when these are not known.
+         */
+        @Nullable
+        Set<ResourceLockContainer> getBlockedOn() {
+            if (blockedOnUntrackedLock || blockedOn == null) {
+                return null;
+            }
+            return Sets.newHashSet(blockedOn);
+        }
+
         Collection<ResourceLock> getUnlockedResources() {
             return unlockedResources == null ? Collections.<ResourceLock>emptyList() : unlockedResources;
         }
@@ -237,6 +364,10 @@ public void reset() {
             if (unlockedResources != null) {
                 unlockedResources.clear();
             }
+            if (blockedOn != null) {
+                blockedOn.clear();
+            }
+            blockedOnUntrackedLock = false;
             rollback = false;
         }
     }
@@ -296,6 +427,7 @@ private static class AcquireLocks implements InternalTransformer<ResourceLockSta
         public ResourceLockState.Disposition transform(ResourceLockState resourceLockState) {
             for (ResourceLock resourceLock : resourceLocks) {
                 if (!resourceLock.tryLock()) {
+                    resourceLockState.registerBlocked(resourceLock);
                     return blocking ? ResourceLockState.Disposition.RETRY : ResourceLockState.Disposition.FAILED;
                 }
             }
@@ -38,6 +38,14 @@ enum Disposition { FAILED, FINISHED, RETRY }
      */
     void registerUnlocked(ResourceLock resourceLock);
 
+    /**
+     * Registers a resource lock that could not be acquired during the transform so that the coordination service can
+     * wake the thread when a related lock is released.
+     *
+     * @param resourceLock
+     */
+    void registerBlocked(ResourceLock resourceLock);
+
     /**
      * Release any locks that have been acquired during the transform.
      */
@@ -30,6 +30,12 @@
      */
     void submit(ConditionalExecution<T> execution);
 
+    /**
+     * Submit a new conditional execution to the queue, on behalf of the given group.  Executions of the same group run in
+     * submission order, while executions of different groups share the workers of the queue fairly.
+     */
+    void submit(Object group, ConditionalExecution<T> execution);
+
     /**
      * Expand the execution queue worker pool.  This should be called before an execution in the queue is blocked waiting
      * on another execution (e.g. work that submits and waits on other work).
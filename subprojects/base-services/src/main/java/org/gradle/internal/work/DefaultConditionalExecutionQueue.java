@@ -17,23 +17,30 @@
 package org.gradle.internal.work;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.ManagedExecutor;
 
 import javax.annotation.Nullable;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A queueing mechanism that only executes items once certain conditions are reached.
+ *
+ * <p>Executions are queued per group, in submission order. Workers take executions from the groups in turn, so that a group
+ * that submits many executions does not hold back the executions of other groups that are submitted later.</p>
  */
 // TODO This class, DefaultBuildOperationQueue and ExecutionPlan have many of the same
 // behavior and concerns - we should look for a way to generalize this pattern.
 public class DefaultConditionalExecutionQueue<T> implements ConditionalExecutionQueue<T> {
     public static final int KEEP_ALIVE_TIME_MS = 2000;
+    private static final Object DEFAULT_GROUP = new Object();
 
     private enum QueueState {
         Working, Stopped
@@ -42,7 +49,8 @@ private enum QueueState {
     private final int maxWorkers;
     private final WorkerLeaseService workerLeaseService;
     private final ManagedExecutor executor;
-    private final Deque<ConditionalExecution<T>> queue = Lists.newLinkedList();
+    // Groups with queued executions, in the order they will next be served
+    private final Map<Object, Deque<ConditionalExecution<T>>> queues = Maps.newLinkedHashMap();
     private final ReentrantLock lock = new ReentrantLock();
     private final Condition workAvailable = lock.newCondition();
     private QueueState queueState = QueueState.Working;
@@ -58,6 +66,11 @@ public DefaultConditionalExecutionQueue(String displayName, int maxWorkers, Exec
 
     @Override
     public void submit(ConditionalExecution<T> execution) {
+        submit(DEFAULT_GROUP, execution);
+    }
+
+    @Override
+    public void submit(Object group, ConditionalExecution<T> execution) {
         if (queueState == QueueState.Stopped) {
             throw new IllegalStateException("DefaultConditionalExecutionQueue cannot be reused once it has been stopped.");
         }
@@ -69,6 +82,11 @@ public void submit(ConditionalExecution<T> execution) {
                 expand(true);
             }
 
+            Deque<ConditionalExecution<T>> queue = queues.get(group);
+            if (queue == null) {
+                queue = Lists.newLinkedList();
+                queues.put(group, queue);
+            }
             queue.add(execution);
             workAvailable.signalAll();
         } finally {
@@ -92,7 +110,7 @@ private void expand(boolean force) {
         lock.lock();
         try {
             // Only expand the thread pool if there is work in the queue or we know that work is about to be submitted (i.e. force == true)
-            if (force || !queue.isEmpty()) {
+            if (force || !queues.isEmpty()) {
                 executor.submit(new ExecutionRunner());
                 workerCount++;
             }
@@ -135,7 +153,7 @@ private ConditionalExecution<?> waitForNextOperation() {
             try {
                 // Wait for work to be submitted if the queue is empty and our worker count is under max workers
                 // This attempts to keep up to max workers threads alive once they've been started.
-                while (queueState == QueueState.Working && queue.isEmpty() && (workerCount <= maxWorkers)) {
+                while (queueState == QueueState.Working && queues.isEmpty() && (workerCount <= maxWorkers)) {
                     try {
                         workAvailable.await();
                     } catch (InterruptedException e) {
@@ -167,13 +185,25 @@ public void run() {
         }
 
         /**
-         * Gets the next ConditionalExecution object that is ready to be executed.
+         * Gets the next ConditionalExecution object that is ready to be executed, from the group that was least recently served.
          */
         @Nullable
         private ConditionalExecution<?> getReadyExecution() {
             lock.lock();
             try {
-                return queue.pollFirst();
+                Iterator<Map.Entry<Object, Deque<ConditionalExecution<T>>>> groups = queues.entrySet().iterator();
+                if (!groups.hasNext()) {
+                    return null;
+                }
+                Map.Entry<Object, Deque<ConditionalExecution<T>>> next = groups.next();
+                Deque<ConditionalExecution<T>> queue = next.getValue();
+                ConditionalExecution<T> execution = queue.pollFirst();
+                groups.remove();
+                if (!queue.isEmpty()) {
+                    // Move the group to the back of the line
+                    queues.put(next.getKey(), queue);
+                }
+                return execution;
             } finally {
                 lock.unlock();
             }
@@ -21,6 +21,8 @@ import org.gradle.internal.InternalTransformer
 import org.gradle.test.fixtures.ConcurrentTestUtil
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 
+import java.util.concurrent.atomic.AtomicInteger
+
 import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.lock
 import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.tryLock
 import static org.gradle.internal.resources.DefaultResourceLockCoordinationService.unlock
@@ -403,6 +405,75 @@ class DefaultResourceLockCoordinationServiceTest extends ConcurrentSpec {
         0 * listener._
     }
 
+    def "thread blocked acquiring a lock is woken only when a lock of the same owner is released"() {
+        def attempts = new AtomicInteger()
+        def lock1 = new TestTrackedResourceLock("lock1", coordinationService, Stub(ResourceLockContainer), true, false) {
+            @Override
+            protected boolean acquireLock() {
+                attempts.incrementAndGet()
+                return super.acquireLock()
+            }
+        }
+        def lock2 = resourceLock("lock2", true)
+
+        when:
+        async {
+            start {
+                coordinationService.withStateLock(lock(lock1))
+                instant.acquired
+            }
+
+            ConcurrentTestUtil.poll {
+                assert attempts.get() == 1
+            }
+
+            lock2.lockedState = false
+            coordinationService.withStateLock { state ->
+                state.registerUnlocked(lock2)
+                return FINISHED
+            }
+
+            lock1.lockedState = false
+            coordinationService.withStateLock { state ->
+                state.registerUnlocked(lock1)
+                return FINISHED
+            }
+
+            thread.blockUntil.acquired
+        }
+
+        then:
+        attempts.get() == 2
+    }
+
+    def "acquires locks of several owners atomically under contention"() {
+        def owners = [Stub(ResourceLockContainer), Stub(ResourceLockContainer)]
+        def locks = (0..<6).collect { new ExclusiveAccessResourceLock("lock$it", coordinationService, owners[it % 2]) }
+        def holders = locks.collect { new AtomicInteger() }
+
+        when:
+        async {
+            8.times { worker ->
+                start {
+                    def random = new Random(worker)
+                    200.times {
+                        def first = random.nextInt(locks.size())
+                        def second = (first + 1 + random.nextInt(locks.size() - 1)) % locks.size()
+                        coordinationService.withStateLock(lock(locks[first], locks[second]))
+                        assert holders[first].incrementAndGet() == 1
+                        assert holders[second].incrementAndGet() == 1
+                        holders[first].decrementAndGet()
+                        holders[second].decrementAndGet()
+                        coordinationService.withStateLock(unlock(locks[first], locks[second]))
+                    }
+                }
+            }
+        }
+
+        then:
+        holders.every { it.get() == 0 }
+    }
+
     TestTrackedResourceLock resourceLock(String displayName, boolean locked, boolean hasLock = false) {
         return new TestTrackedResourceLock(displayName, coordinationService, Mock(ResourceLockContainer), locked, hasLock)
     }
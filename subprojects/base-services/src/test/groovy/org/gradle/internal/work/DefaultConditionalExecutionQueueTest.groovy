@@ -180,6 +180,35 @@ class DefaultConditionalExecutionQueueTest extends ConcurrentSpec {
         }
     }
 
+    def "shares workers between groups of executions"() {
+        def executed = [].asSynchronized()
+        queue = new DefaultConditionalExecutionQueue(DISPLAY_NAME, 1, new DefaultExecutorFactory(), workerLeaseService)
+        def blocking = testExecution({
+            instant.blockingStarted
+            thread.blockUntil.released
+        })
+        def executions = ["a1", "a2", "a3", "b1"].collect { name ->
+            testExecution({
+                executed << name
+            })
+        }
+
+        when:
+        async {
+            queue.submit("a", blocking)
+            thread.blockUntil.blockingStarted
+            queue.submit("a", executions[0])
+            queue.submit("a", executions[1])
+            queue.submit("a", executions[2])
+            queue.submit("b", executions[3])
+            instant.released
+            executions.each { it.await() }
+        }
+
+        then:
+        executed == ["a1", "b1", "a2", "a3"]
+    }
+
     def "can get a result from an execution"() {
         def execution = testExecution({
             println("I'm running!")
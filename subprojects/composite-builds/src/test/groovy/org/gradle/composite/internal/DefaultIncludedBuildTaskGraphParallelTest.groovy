@@ -46,6 +46,7 @@ import org.gradle.execution.plan.OrdinalGroupFactory
 import org.gradle.execution.plan.PlanExecutor
 import org.gradle.execution.plan.SelfExecutingNode
 import org.gradle.execution.plan.TaskDependencyResolver
+import org.gradle.execution.plan.TaskDurationHistory
 import org.gradle.execution.plan.TaskNodeFactory
 import org.gradle.initialization.DefaultBuildCancellationToken
 import org.gradle.internal.build.BuildLifecycleController
@@ -306,7 +307,7 @@ class DefaultIncludedBuildTaskGraphParallelTest extends AbstractIncludedBuildTas
                 []
             }
         }
-        def plan = new DefaultExecutionPlan(displayName, nodeFactory, new OrdinalGroupFactory(), dependencyResolver, hierarchies.outputHierarchy, hierarchies.destroyableHierarchy, services.services.coordinationService)
+        def plan = new DefaultExecutionPlan(displayName, nodeFactory, new OrdinalGroupFactory(), dependencyResolver, hierarchies.outputHierarchy, hierarchies.destroyableHierarchy, services.services.coordinationService, TaskDurationHistory.NONE)
         def workPlan = Stub(BuildWorkPlan) {
             _ * stop() >> { plan.close() }
         }
@@ -260,6 +260,54 @@ class ConfigurationCacheCompositeBuildsIntegrationTest extends AbstractConfigura
         order << ['lib', 'util'].permutations()
     }
 
+    def "can store and load the state of included builds in parallel"() {
+        given:
+        def configurationCache = newConfigurationCacheFixture()
+        withLibBuild()
+        withAppBuild()
+        file('app/settings.gradle') << """
+            includeBuild '../util'
+        """
+        file('app/build.gradle') << """
+            dependencies {
+                implementation 'org.test:util:1.0'
+            }
+        """
+        createDir('util') {
+            file('settings.gradle') << """
+                rootProject.name = 'util'
+            """
+            file('build.gradle') << """
+                plugins { id 'java-library' }
+                group = 'org.test'
+                version = '1.0'
+                dependencies {
+                    api 'org.test:lib:1.0'
+                }
+            """
+            file('src/main/java/Util.java') << """
+                public class Util { }
+            """
+        }
+
+        when:
+        inDirectory 'app'
+        configurationCacheRun 'run', '-Dorg.gradle.configuration-cache.internal.parallel-store-and-load=true'
+
+        then:
+        outputContains 'Before!'
+        configurationCache.assertStateStored()
+
+        when:
+        inDirectory 'app'
+        configurationCacheRun 'run', '-Dorg.gradle.configuration-cache.internal.parallel-store-and-load=true'
+
+        then:
+        outputContains 'Before!'
+        configurationCache.assertStateLoaded()
+        result.assertTaskOrder(':lib:compileJava', ':util:compileJava', ':compileJava')
+    }
+
     private static withEnterprisePlugin(TestFile settingsDir) {
         ApplyGradleEnterprisePluginFixture.applyEnterprisePlugin(
             settingsDir.file('settings.gradle')
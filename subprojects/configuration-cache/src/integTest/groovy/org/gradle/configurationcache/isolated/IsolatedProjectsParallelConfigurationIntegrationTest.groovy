@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.isolated
+
+import org.gradle.test.fixtures.server.http.BlockingHttpServer
+import org.junit.Rule
+
+class IsolatedProjectsParallelConfigurationIntegrationTest extends AbstractIsolatedProjectsIntegrationTest {
+    private static final String PARALLEL_CONFIGURATION = "-Dorg.gradle.internal.isolated-projects.parallel-configuration=true"
+
+    @Rule
+    BlockingHttpServer server = new BlockingHttpServer()
+
+    def setup() {
+        server.start()
+        settingsFile << """
+            rootProject.name = "root"
+            include("a")
+            include("b")
+        """
+        buildFile << """
+            task thing
+        """
+        projectThatCallsServer("a")
+        projectThatCallsServer("b")
+    }
+
+    def "configures projects in parallel when selecting tasks by name"() {
+        given:
+        server.expectConcurrent("configure-a", "configure-b")
+
+        when:
+        configurationCacheRun("thing", "--parallel", PARALLEL_CONFIGURATION)
+
+        then:
+        result.assertTasksExecuted(":thing", ":a:thing", ":b:thing")
+        fixture.assertStateStored {
+            projectsConfigured(":", ":a", ":b")
+        }
+    }
+
+    def "configures projects one at a time when project evaluation listeners are registered"() {
+        given:
+        settingsFile << """
+            gradle.afterProject { println("configured " + it.path) }
+        """
+        server.expect("configure-a")
+        server.expect("configure-b")
+
+        when:
+        configurationCacheRun("thing", "--parallel", PARALLEL_CONFIGURATION)
+
+        then:
+        result.assertTasksExecuted(":thing", ":a:thing", ":b:thing")
+        outputContains("configured :a")
+        outputContains("configured :b")
+    }
+
+    def "configures projects one at a time when parallel configuration is not enabled"() {
+        given:
+        server.expect("configure-a")
+        server.expect("configure-b")
+
+        when:
+        configurationCacheRun("thing", "--parallel")
+
+        then:
+        result.assertTasksExecuted(":thing", ":a:thing", ":b:thing")
+    }
+
+    private void projectThatCallsServer(String name) {
+        file("$name/build.gradle") << """
+            ${server.callFromBuild("configure-$name")}
+            task thing
+        """
+    }
+}
@@ -22,6 +22,8 @@ import org.gradle.internal.operations.BuildOperationContext
 import org.gradle.internal.operations.BuildOperationDescriptor
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.CallableBuildOperation
+import org.gradle.internal.operations.MultipleBuildOperationFailures
+import org.gradle.internal.operations.RunnableBuildOperation
 
 
 internal
@@ -34,6 +36,39 @@ fun BuildOperationExecutor.withStoreOperation(@Suppress("UNUSED_PARAMETER") cach
     withOperation("Store configuration cache state", block, StoreDetails, StoreResult)
 
 
+/**
+ * Runs each of the given actions as a build operation with the given display name, in parallel with each other.
+ *
+ * If any action fails, the failure of the first failed action, in the order given, is rethrown as is, so that callers
+ * can handle configuration cache errors in the same way as when the actions are run sequentially.
+ */
+internal
+fun BuildOperationExecutor.runInParallel(actions: List<Pair<String, () -> Unit>>) {
+    val failures = arrayOfNulls<Throwable>(actions.size)
+    try {
+        runAllWithAccessToProjectState<RunnableBuildOperation> { queue ->
+            actions.forEachIndexed { index, (displayName, action) ->
+                queue.add(object : RunnableBuildOperation {
+                    override fun description(): BuildOperationDescriptor.Builder =
+                        BuildOperationDescriptor.displayName(displayName)
+
+                    override fun run(context: BuildOperationContext) {
+                        try {
+                            action()
+                        } catch (e: Throwable) {
+                            failures[index] = e
+                            throw e
+                        }
+                    }
+                })
+            }
+        }
+    } catch (e: MultipleBuildOperationFailures) {
+        throw failures.firstOrNull { it != null } ?: e
+    }
+}
+
+
 private
 object LoadDetails : ConfigurationCacheLoadBuildOperationType.Details
 
@@ -24,6 +24,7 @@ import org.gradle.configurationcache.cacheentry.ModelKey
 import org.gradle.configurationcache.extensions.useToRun
 import org.gradle.configurationcache.initialization.ConfigurationCacheStartParameter
 import org.gradle.configurationcache.problems.ConfigurationCacheProblems
+import org.gradle.configurationcache.problems.ConfigurationCacheProfiler
 import org.gradle.configurationcache.serialization.DefaultReadContext
 import org.gradle.configurationcache.serialization.DefaultWriteContext
 import org.gradle.configurationcache.serialization.LoggingTracer
@@ -63,7 +64,8 @@ class ConfigurationCacheIO internal constructor(
     private val scopeRegistryListener: ConfigurationCacheClassLoaderScopeRegistryListener,
     private val beanStateReaderLookup: BeanStateReaderLookup,
     private val beanStateWriterLookup: BeanStateWriterLookup,
-    private val eventEmitter: BuildOperationProgressEventEmitter
+    private val eventEmitter: BuildOperationProgressEventEmitter,
+    private val profiler: ConfigurationCacheProfiler
 ) {
     private
     val codecs = codecs()
@@ -171,7 +173,7 @@ class ConfigurationCacheIO internal constructor(
         action: suspend DefaultReadContext.(ConfigurationCacheState) -> T
     ): T {
         return withReadContextFor(encryptionService.inputStream(stateFile.stateType, stateFile::inputStream)) { codecs ->
-            ConfigurationCacheState(codecs, stateFile, eventEmitter, host).run {
+            ConfigurationCacheState(codecs, stateFile, eventEmitter, host, startParameter.parallelStoreAndLoad).run {
                 action(this)
             }
         }
@@ -187,7 +189,7 @@ class ConfigurationCacheIO internal constructor(
         val (context, codecs) = writerContextFor(encryptionService.outputStream(stateFile.stateType, stateFile::outputStream), build.gradle.owner.displayName.displayName + " state")
         return context.useToRun {
             runWriteOperation {
-                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host))
+                action(ConfigurationCacheState(codecs, stateFile, eventEmitter, host, startParameter.parallelStoreAndLoad))
             }
         }
     }
@@ -215,11 +217,18 @@ class ConfigurationCacheIO internal constructor(
         KryoBackedEncoder(outputStream).let { encoder ->
             writeContextFor(
                 encoder,
-                loggingTracerFor(profile, encoder),
+                tracerFor(profile, encoder),
                 codecs
             ) to codecs
         }
 
+    /**
+     * Profiling, when enabled, takes precedence over the logging of debug frames.
+     */
+    private
+    fun tracerFor(profile: String, encoder: KryoBackedEncoder): Tracer? =
+        profiler.tracerFor(profile, encoder::getWritePosition) ?: loggingTracerFor(profile, encoder)
+
     private
     fun loggingTracerFor(profile: String, encoder: KryoBackedEncoder) =
         loggingTracerLogLevel()?.let { level ->
@@ -76,6 +76,7 @@ import org.gradle.internal.enterprise.core.GradleEnterprisePluginAdapter
 import org.gradle.internal.enterprise.core.GradleEnterprisePluginManager
 import org.gradle.internal.execution.BuildOutputCleanupRegistry
 import org.gradle.internal.file.FileSystemDefaultExcludesProvider
+import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationProgressEventEmitter
 import org.gradle.plugin.management.internal.PluginRequests
 import org.gradle.util.Path
@@ -135,7 +136,8 @@ class ConfigurationCacheState(
     private val codecs: Codecs,
     private val stateFile: ConfigurationCacheStateFile,
     private val eventEmitter: BuildOperationProgressEventEmitter,
-    private val host: DefaultConfigurationCache.Host
+    private val host: DefaultConfigurationCache.Host,
+    private val parallelSegments: Boolean
 ) {
     /**
      * Writes the state for the whole build starting from the given root [build] and returns the set
@@ -247,26 +249,32 @@ class ConfigurationCacheState(
                 builds[state.owner] = builds.getValue(state.owner).hasChildren()
             }
         }
+        val segments = StateSegments()
         writeCollection(builds.values) { build ->
             writeBuildState(
                 build,
                 StoredBuildTreeState(
                     requiredBuildServicesPerBuild = requiredBuildServicesPerBuild
                 ),
-                rootBuild
+                rootBuild,
+                segments
             )
         }
+        segments.runPending()
     }
 
     private
     suspend fun DefaultReadContext.readBuildsInTree(rootBuild: ConfigurationCacheBuild): List<CachedBuildState> {
-        return readList {
-            readBuildState(rootBuild)
+        val segments = StateSegments()
+        val builds = readList {
+            readBuildState(rootBuild, segments)
         }
+        segments.runPending()
+        return builds.map { it() }
     }
 
     private
-    suspend fun DefaultWriteContext.writeBuildState(build: BuildToStore, buildTreeState: StoredBuildTreeState, rootBuild: VintageGradleBuild) {
+    suspend fun DefaultWriteContext.writeBuildState(build: BuildToStore, buildTreeState: StoredBuildTreeState, rootBuild: VintageGradleBuild, segments: StateSegments) {
         val state = build.build.state
         when {
             !build.hasWork && !build.hasChildren -> {
@@ -281,12 +289,12 @@ class ConfigurationCacheState(
 
             state is IncludedBuildState -> {
                 writeEnum(BuildType.IncludedBuild)
-                writeIncludedBuild(state, buildTreeState)
+                writeIncludedBuild(state, buildTreeState, segments)
             }
 
             state is StandAloneNestedBuild -> {
                 writeEnum(BuildType.BuildSrcBuild)
-                writeBuildSrcBuild(state, buildTreeState)
+                writeBuildSrcBuild(state, buildTreeState, segments)
             }
 
             else -> {
@@ -295,32 +303,32 @@ class ConfigurationCacheState(
         }
     }
 
+    /**
+     * Reads the state of a build, returning a function that provides the state once any [segments] have been loaded.
+     */
     private
-    suspend fun DefaultReadContext.readBuildState(rootBuild: ConfigurationCacheBuild): CachedBuildState {
+    suspend fun DefaultReadContext.readBuildState(rootBuild: ConfigurationCacheBuild, segments: StateSegments): () -> CachedBuildState {
         return when (readEnum<BuildType>()) {
-            BuildType.BuildWithNoWork -> readBuildWithNoWork(rootBuild)
-            BuildType.RootBuild -> readBuildContent(rootBuild)
-            BuildType.IncludedBuild -> readIncludedBuild(rootBuild)
-            BuildType.BuildSrcBuild -> readBuildSrcBuild(rootBuild)
+            BuildType.BuildWithNoWork -> readBuildWithNoWork(rootBuild).let { state -> { state } }
+            BuildType.RootBuild -> readBuildContent(rootBuild).let { state -> { state } }
+            BuildType.IncludedBuild -> readIncludedBuild(rootBuild, segments)
+            BuildType.BuildSrcBuild -> readBuildSrcBuild(rootBuild, segments)
         }
     }
 
     private
-    suspend fun DefaultWriteContext.writeIncludedBuild(state: IncludedBuildState, buildTreeState: StoredBuildTreeState) {
+    suspend fun DefaultWriteContext.writeIncludedBuild(state: IncludedBuildState, buildTreeState: StoredBuildTreeState, segments: StateSegments) {
         val gradle = state.mutableModel
         withGradleIsolate(gradle, userTypesCodec) {
             write(gradle.settings.settingsScript.resource.file)
             writeBuildDefinition(state.buildDefinition)
             write(state.identityPath)
         }
-        // Encode the build state using the contextualized IO service for the nested build
-        state.projects.withMutableStateOfAllProjects {
-            gradle.serviceOf<ConfigurationCacheIO>().writeIncludedBuildStateTo(stateFileFor(state.buildDefinition), buildTreeState)
-        }
+        writeNestedBuildSegment(state, buildTreeState, segments)
     }
 
     private
-    suspend fun DefaultReadContext.readIncludedBuild(rootBuild: ConfigurationCacheBuild): CachedBuildState {
+    suspend fun DefaultReadContext.readIncludedBuild(rootBuild: ConfigurationCacheBuild, segments: StateSegments): () -> CachedBuildState {
         val build = withGradleIsolate(rootBuild.gradle, userTypesCodec) {
             val settingsFile = read() as File?
             val definition = readIncludedBuildDefinition(rootBuild)
@@ -329,8 +337,27 @@ class ConfigurationCacheState(
         }
 
         build.gradle.loadGradleProperties()
-        // Decode the build state using the contextualized IO service for the build
-        return build.gradle.serviceOf<ConfigurationCacheIO>().readIncludedBuildStateFrom(stateFileFor((build.state as NestedBuildState).buildDefinition), build)
+        return readNestedBuildSegment(build, segments)
+    }
+
+    private
+    fun writeNestedBuildSegment(state: NestedBuildState, buildTreeState: StoredBuildTreeState, segments: StateSegments) {
+        segments.add("Store configuration cache state for ${state.displayName.displayName}") {
+            // Encode the build state using the contextualized IO service for the nested build
+            state.projects.withMutableStateOfAllProjects {
+                state.mutableModel.serviceOf<ConfigurationCacheIO>().writeIncludedBuildStateTo(stateFileFor(state.buildDefinition), buildTreeState)
+            }
+        }
+    }
+
+    private
+    fun readNestedBuildSegment(build: ConfigurationCacheBuild, segments: StateSegments): () -> CachedBuildState {
+        var state: CachedBuildState? = null
+        segments.add("Load configuration cache state for ${build.state.displayName.displayName}") {
+            // Decode the build state using the contextualized IO service for the build
+            state = build.gradle.serviceOf<ConfigurationCacheIO>().readIncludedBuildStateFrom(stateFileFor((build.state as NestedBuildState).buildDefinition), build)
+        }
+        return { state!! }
     }
 
     private
@@ -343,26 +370,22 @@ class ConfigurationCacheState(
     }
 
     private
-    suspend fun DefaultWriteContext.writeBuildSrcBuild(state: StandAloneNestedBuild, buildTreeState: StoredBuildTreeState) {
+    suspend fun DefaultWriteContext.writeBuildSrcBuild(state: StandAloneNestedBuild, buildTreeState: StoredBuildTreeState, segments: StateSegments) {
         val gradle = state.mutableModel
         withGradleIsolate(gradle, userTypesCodec) {
             write(state.owner.buildIdentifier)
         }
-        // Encode the build state using the contextualized IO service for the nested build
-        state.projects.withMutableStateOfAllProjects {
-            gradle.serviceOf<ConfigurationCacheIO>().writeIncludedBuildStateTo(stateFileFor(state.buildDefinition), buildTreeState)
-        }
+        writeNestedBuildSegment(state, buildTreeState, segments)
     }
 
     private
-    suspend fun DefaultReadContext.readBuildSrcBuild(rootBuild: ConfigurationCacheBuild): CachedBuildState {
+    suspend fun DefaultReadContext.readBuildSrcBuild(rootBuild: ConfigurationCacheBuild, segments: StateSegments): () -> CachedBuildState {
         val build = withGradleIsolate(rootBuild.gradle, userTypesCodec) {
             val ownerIdentifier = readNonNull<BuildIdentifier>()
             rootBuild.getBuildSrcOf(ownerIdentifier)
         }
         build.gradle.loadGradleProperties()
-        // Decode the build state using the contextualized IO service for the build
-        return build.gradle.serviceOf<ConfigurationCacheIO>().readIncludedBuildStateFrom(stateFileFor((build.state as NestedBuildState).buildDefinition), build)
+        return readNestedBuildSegment(build, segments)
     }
 
     private
@@ -833,6 +856,35 @@ class ConfigurationCacheState(
     private
     val BuildState.projectsAvailable
         get() = isProjectsLoaded && projects.rootProject.isCreated
+
+    /**
+     * The state of each included build and buildSrc build is stored in a separate file, using its own
+     * read or write context, so it does not share object identities with the state of any other build.
+     * This allows these segments to be stored and loaded in parallel, once the state of the root build
+     * has been processed.
+     */
+    private
+    inner class StateSegments {
+        private
+        val pending = mutableListOf<Pair<String, () -> Unit>>()
+
+        fun add(displayName: String, action: () -> Unit) {
+            if (parallelSegments) {
+                pending.add(displayName to action)
+            } else {
+                action()
+            }
+        }
+
+        fun runPending() {
+            when (pending.size) {
+                0 -> return
+                1 -> pending.single().second()
+                else -> host.service<BuildOperationExecutor>().runInParallel(pending)
+            }
+            pending.clear()
+        }
+    }
 }
 
 
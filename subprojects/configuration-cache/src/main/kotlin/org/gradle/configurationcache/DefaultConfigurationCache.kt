@@ -326,6 +326,10 @@ class DefaultConfigurationCache internal constructor(
         }
     }
 
+    // The work graph of the whole build tree is stored as a single entry, and is invalidated as a whole when any configuration input changes.
+    // It cannot be split into an entry per project: the state of a task references the tasks, variants and shared values of other projects,
+    // such as file collections and providers, by identity within the one entry. So the tasks of projects loaded from the cache could not
+    // be mixed with the tasks of projects that are configured again, and an entry per project would still have to be written for every project.
     private
     fun saveWorkGraph() {
         saveToCache(StateType.Work) { layout -> writeConfigurationCacheState(layout) }
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.security.GeneralSecurityException
+import javax.crypto.Cipher
+
+
+/**
+ * Size of the blocks of plain and encrypted data handed to the [Cipher] at once.
+ *
+ * Much larger than the buffers used by [javax.crypto.CipherInputStream] and [javax.crypto.CipherOutputStream],
+ * so that the cipher processes data in bulk and the underlying stream sees few, large reads and writes.
+ */
+private
+const val CIPHER_BLOCK_BUFFER_SIZE = 64 * 1024
+
+
+/**
+ * An [OutputStream] that encrypts data written to it with the given [cipher] in large blocks.
+ *
+ * Output buffers are reused across blocks, and the cipher is finalized when the stream is closed.
+ */
+internal
+class BlockCipherOutputStream(
+    private val output: OutputStream,
+    private val cipher: Cipher
+) : OutputStream() {
+
+    private
+    val buffer = ByteArray(CIPHER_BLOCK_BUFFER_SIZE)
+
+    private
+    var count = 0
+
+    private
+    var encrypted = ByteArray(cipher.getOutputSize(CIPHER_BLOCK_BUFFER_SIZE))
+
+    private
+    var closed = false
+
+    override fun write(b: Int) {
+        if (count == buffer.size) {
+            encryptBuffer()
+        }
+        buffer[count++] = b.toByte()
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+        var offset = off
+        var remaining = len
+        while (remaining > 0) {
+            if (count == 0 && remaining >= buffer.size) {
+                // Encrypt large writes in place, without copying them to the buffer first
+                encrypt(b, offset, buffer.size)
+                offset += buffer.size
+                remaining -= buffer.size
+            } else {
+                val length = minOf(remaining, buffer.size - count)
+                System.arraycopy(b, offset, buffer, count, length)
+                count += length
+                offset += length
+                remaining -= length
+                if (count == buffer.size) {
+                    encryptBuffer()
+                }
+            }
+        }
+    }
+
+    override fun flush() {
+        encryptBuffer()
+        output.flush()
+    }
+
+    override fun close() {
+        if (closed) {
+            return
+        }
+        closed = true
+        output.use {
+            encryptBuffer()
+            val length = cipherOperation {
+                cipher.doFinal(ensureCapacity(cipher.getOutputSize(0)), 0)
+            }
+            output.write(encrypted, 0, length)
+        }
+    }
+
+    private
+    fun encryptBuffer() {
+        if (count > 0) {
+            encrypt(buffer, 0, count)
+            count = 0
+        }
+    }
+
+    private
+    fun encrypt(bytes: ByteArray, offset: Int, length: Int) {
+        val encryptedLength = cipherOperation {
+            cipher.update(bytes, offset, length, ensureCapacity(cipher.getOutputSize(length)), 0)
+        }
+        output.write(encrypted, 0, encryptedLength)
+    }
+
+    private
+    fun ensureCapacity(size: Int): ByteArray {
+        if (encrypted.size < size) {
+            encrypted = ByteArray(size)
+        }
+        return encrypted
+    }
+}
+
+
+/**
+ * An [InputStream] that decrypts data read from [input] with the given [cipher] in large blocks.
+ *
+ * The cipher is finalized once [input] is exhausted.
+ */
+internal
+class BlockCipherInputStream(
+    private val input: InputStream,
+    private val cipher: Cipher
+) : InputStream() {
+
+    private
+    val buffer = ByteArray(CIPHER_BLOCK_BUFFER_SIZE)
+
+    private
+    var decrypted = ByteArray(cipher.getOutputSize(CIPHER_BLOCK_BUFFER_SIZE))
+
+    private
+    var position = 0
+
+    private
+    var limit = 0
+
+    private
+    var finished = false
+
+    override fun read(): Int =
+        if (fill()) decrypted[position++].toInt() and 0xff
+        else -1
+
+    override fun read(b: ByteArray, off: Int, len: Int): Int {
+        if (len == 0) {
+            return 0
+        }
+        if (!fill()) {
+            return -1
+        }
+        val length = minOf(len, limit - position)
+        System.arraycopy(decrypted, position, b, off, length)
+        position += length
+        return length
+    }
+
+    override fun available(): Int =
+        limit - position
+
+    override fun close() {
+        input.close()
+    }
+
+    /**
+     * Makes sure there's decrypted data available, returning `false` at the end of the stream.
+     */
+    private
+    fun fill(): Boolean {
+        while (position == limit) {
+            if (finished) {
+                return false
+            }
+            val read = input.read(buffer)
+            position = 0
+            limit = cipherOperation {
+                if (read == -1) {
+                    finished = true
+                    cipher.doFinal(ensureCapacity(cipher.getOutputSize(0)), 0)
+                } else {
+                    cipher.update(buffer, 0, read, ensureCapacity(cipher.getOutputSize(read)), 0)
+                }
+            }
+        }
+        return true
+    }
+
+    private
+    fun ensureCapacity(size: Int): ByteArray {
+        if (decrypted.size < size) {
+            decrypted = ByteArray(size)
+        }
+        return decrypted
+    }
+}
+
+
+private
+inline fun cipherOperation(operation: () -> Int): Int =
+    try {
+        operation()
+    } catch (e: GeneralSecurityException) {
+        throw IOException(e)
+    }
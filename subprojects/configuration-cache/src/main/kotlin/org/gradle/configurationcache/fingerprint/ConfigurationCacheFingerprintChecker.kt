@@ -61,18 +61,37 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         fun displayNameOf(fileOrDirectory: File): String
         fun instantiateValueSourceOf(obtainedValue: ObtainedValue): ValueSource<Any, ValueSourceParameters>
         fun isRemoteScriptUpToDate(uri: URI): Boolean
+
+        /**
+         * Gives the host a chance to snapshot the given files up front, possibly in parallel,
+         * before their hash codes are requested one at a time via [hashCodeOf].
+         */
+        fun snapshotInputFiles(files: List<File>)
     }
 
     suspend fun ReadContext.checkBuildScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
-        while (true) {
-            when (val input = read()) {
-                null -> break
+        val inputs = readInputs()
+        // Check the inputs that are cheap to check first, so that no input file is hashed when one of them is out-of-date
+        for (input in inputs) {
+            if (input is ConfigurationCacheFingerprint && isCheapToCheck(input)) {
+                val reason = check(input)
+                if (reason != null) {
+                    return CheckedFingerprint.EntryInvalid(reason)
+                }
+            }
+        }
+        val inputFiles = InputFilesSnapshot(inputs)
+        for ((index, input) in inputs.withIndex()) {
+            when (input) {
                 is ConfigurationCacheFingerprint -> {
                     // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
-                    val reason = check(input)
-                    if (reason != null) {
-                        return CheckedFingerprint.EntryInvalid(reason)
+                    if (!isCheapToCheck(input)) {
+                        inputFiles.beforeChecking(index)
+                        val reason = check(input)
+                        if (reason != null) {
+                            return CheckedFingerprint.EntryInvalid(reason)
+                        }
                     }
                 }
                 else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
@@ -81,18 +100,23 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         return CheckedFingerprint.Valid
     }
 
+    // Project scoped inputs are only recorded for builds that create tooling models with isolated projects. Those builds keep
+    // the models and metadata of each project in separate entries, so only the invalidated projects need to be configured again.
+    // Builds that run tasks record every input as build scoped, see DefaultConfigurationCache.saveWorkGraph for why.
     suspend fun ReadContext.checkProjectScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
         var firstReason: InvalidationReason? = null
         val projects = mutableMapOf<Path, ProjectInvalidationState>()
-        while (true) {
-            when (val input = read()) {
-                null -> break
+        val inputs = readInputs()
+        val inputFiles = InputFilesSnapshot(inputs)
+        for ((index, input) in inputs.withIndex()) {
+            when (input) {
                 is ProjectSpecificFingerprint.ProjectFingerprint -> input.run {
                     // An input that is specific to a project. If it is out-of-date, then invalidate that project's values and continue checking values
                     // Don't check a value for a project that is already out-of-date
                     val state = projects.entryFor(input.projectPath)
                     if (!state.isInvalid) {
+                        inputFiles.beforeChecking(index) { it is ProjectSpecificFingerprint.ProjectFingerprint && projects[it.projectPath]?.isInvalid == true }
                         val reason = check(input.value)
                         if (reason != null) {
                             if (firstReason == null) {
@@ -145,6 +169,58 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         }
     }
 
+    private
+    suspend fun ReadContext.readInputs(): List<Any> {
+        val inputs = mutableListOf<Any>()
+        while (true) {
+            inputs.add(read() ?: break)
+        }
+        return inputs
+    }
+
+    private
+    fun inputFilesOf(input: Any): List<File> =
+        when (val fingerprint = if (input is ProjectSpecificFingerprint.ProjectFingerprint) input.value else input) {
+            is ConfigurationCacheFingerprint.InputFile -> listOf(fingerprint.file)
+            is ConfigurationCacheFingerprint.InitScripts -> fingerprint.fingerprints.map { it.file }
+            else -> emptyList()
+        }
+
+    /**
+     * Inputs that can be checked without reading the file system or running build logic.
+     */
+    private
+    fun isCheapToCheck(input: ConfigurationCacheFingerprint) =
+        when (input) {
+            is ConfigurationCacheFingerprint.GradleEnvironment,
+            is ConfigurationCacheFingerprint.UndeclaredSystemProperty,
+            is ConfigurationCacheFingerprint.UndeclaredEnvironmentVariable,
+            is ConfigurationCacheFingerprint.SystemPropertiesPrefixedBy,
+            is ConfigurationCacheFingerprint.EnvironmentVariablesPrefixedBy,
+            is ConfigurationCacheFingerprint.ChangingDependencyResolutionValue -> true
+            else -> false
+        }
+
+    /**
+     * Lets the host snapshot the input files of the remaining inputs when the first input that hashes files is about to be checked,
+     * so that no file is hashed when the entry is found to be out-of-date before then.
+     */
+    private
+    inner class InputFilesSnapshot(private val inputs: List<Any>) {
+        private
+        var snapshotted = false
+
+        fun beforeChecking(index: Int, isSkipped: (Any) -> Boolean = { false }) {
+            if (snapshotted || inputFilesOf(inputs[index]).isEmpty()) {
+                return
+            }
+            snapshotted = true
+            host.snapshotInputFiles(
+                inputs.subList(index, inputs.size).filterNot(isSkipped).flatMap(::inputFilesOf)
+            )
+        }
+    }
+
     private
     fun MutableMap<Path, ProjectInvalidationState>.entryFor(path: Path) = getOrPut(path) { ProjectInvalidationState() }
 
@@ -37,6 +37,7 @@ import org.gradle.configurationcache.problems.ProblemFactory
 import org.gradle.configurationcache.problems.PropertyProblem
 import org.gradle.configurationcache.problems.StructuredMessage
 import org.gradle.configurationcache.problems.StructuredMessageBuilder
+import org.gradle.configurationcache.runInParallel
 import org.gradle.configurationcache.serialization.DefaultWriteContext
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.services.ConfigurationCacheEnvironmentChangeTracker
@@ -53,11 +54,13 @@ import org.gradle.internal.execution.model.InputNormalizer
 import org.gradle.internal.fingerprint.DirectorySensitivity
 import org.gradle.internal.fingerprint.LineEndingSensitivity
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.scripts.ProjectScopedScriptResolution
 import org.gradle.internal.scripts.ScriptFileResolverListeners
 import org.gradle.internal.service.scopes.Scopes
 import org.gradle.internal.service.scopes.ServiceScope
 import org.gradle.internal.vfs.FileSystemAccess
+import org.gradle.internal.watch.vfs.FileSystemWatchingInformation
 import org.gradle.util.Path
 import org.gradle.util.internal.BuildCommencedTimeProvider
 import org.gradle.util.internal.GFileUtils
@@ -91,7 +94,9 @@ class ConfigurationCacheFingerprintController internal constructor(
     private val remoteScriptUpToDateChecker: RemoteScriptUpToDateChecker,
     private val agentStatus: AgentStatus,
     private val problems: ConfigurationCacheProblems,
-    private val encryptionService: EncryptionService
+    private val encryptionService: EncryptionService,
+    private val fileSystemWatchingInformation: FileSystemWatchingInformation,
+    private val buildOperationExecutor: BuildOperationExecutor
 ) : Stoppable, ProjectScopedScriptResolution {
 
     interface Host {
@@ -422,9 +427,43 @@ class ConfigurationCacheFingerprintController internal constructor(
 
         override fun isRemoteScriptUpToDate(uri: URI): Boolean =
             remoteScriptUpToDateChecker.isUpToDate(uri)
+
+        override fun snapshotInputFiles(files: List<File>) =
+            inputFilesSnapshotter.snapshot(files)
     }
 
+    private
+    val inputFilesSnapshotter = InputFilesSnapshotter(fileSystemAccess, fileSystemWatchingInformation, buildOperationExecutor)
+
     private
     val rootDirectory
         get() = startParameter.rootDirectory
 }
+
+
+/**
+ * Snapshots the input files of a configuration cache entry in parallel, so that checking them one at a time afterwards doesn't hash any content.
+ */
+internal
+class InputFilesSnapshotter(
+    private val fileSystemAccess: FileSystemAccess,
+    private val fileSystemWatchingInformation: FileSystemWatchingInformation,
+    private val buildOperationExecutor: BuildOperationExecutor
+) {
+    fun snapshot(files: List<File>) {
+        if (files.size <= FILES_PER_SNAPSHOT_OPERATION || fileSystemWatchingInformation.isWatchingAnyLocations) {
+            // When watching, the virtual file system retains the snapshots of unchanged files from the previous build,
+            // so reading them one at a time is a cheap lookup that doesn't hash any content.
+            return
+        }
+        buildOperationExecutor.runInParallel(
+            files.chunked(FILES_PER_SNAPSHOT_OPERATION).map { chunk ->
+                "Snapshot configuration inputs" to { chunk.forEach { fileSystemAccess.read(it.absolutePath) } }
+            }
+        )
+    }
+
+    companion object {
+        const val FILES_PER_SNAPSHOT_OPERATION = 32
+    }
+}
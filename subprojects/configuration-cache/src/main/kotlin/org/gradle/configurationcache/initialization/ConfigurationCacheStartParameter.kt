@@ -45,6 +45,17 @@ class ConfigurationCacheStartParameter(
 
     val taskExecutionAccessPreStable: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.task-execution-access-pre-stable")
 
+    /**
+     * Should the state of included builds and buildSrc builds, which is stored in separate files, be stored and loaded in parallel?
+     */
+    val parallelStoreAndLoad: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.parallel-store-and-load", false)
+
+    /**
+     * Should the number of bytes written and the time spent encoding be recorded per task, bean type and project,
+     * and reported next to the configuration cache report?
+     */
+    val isProfiling: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.profile", false)
+
     val encryptionRequested: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.encryption", true)
 
     val keystoreDir: String? = options.getInternalString("org.gradle.configuration-cache.internal.key-store-dir", null)
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.problems
+
+import org.apache.groovy.json.internal.CharBuf
+import org.gradle.configurationcache.ConfigurationCacheKey
+import org.gradle.configurationcache.initialization.ConfigurationCacheStartParameter
+import org.gradle.configurationcache.logger
+import org.gradle.configurationcache.serialization.Tracer
+import org.gradle.internal.service.scopes.Scopes
+import org.gradle.internal.service.scopes.ServiceScope
+import org.gradle.problems.buildtree.ProblemReporter
+import java.io.File
+import java.io.Writer
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.function.Consumer
+
+
+/**
+ * Records, when [enabled][ConfigurationCacheStartParameter.isProfiling], how many bytes each debug frame
+ * (task, bean type, field, ...) contributes to the configuration cache entry and how long it takes to encode.
+ *
+ * The results are written as `configuration-cache-profile.json` next to the configuration cache report.
+ */
+@ServiceScope(Scopes.BuildTree::class)
+internal
+class ConfigurationCacheProfiler(
+    private val startParameter: ConfigurationCacheStartParameter,
+    private val cacheKey: ConfigurationCacheKey
+) : ProblemReporter {
+
+    private
+    val tracers = ConcurrentLinkedQueue<ProfilingTracer>()
+
+    /**
+     * Returns a [Tracer] for a write context of the given [profile], or `null` when profiling is disabled.
+     */
+    fun tracerFor(profile: String, writePosition: () -> Long): Tracer? =
+        if (startParameter.isProfiling) ProfilingTracer(profile, writePosition).also(tracers::add)
+        else null
+
+    override fun getId(): String =
+        "configuration-cache-profile"
+
+    override fun report(reportDir: File, validationFailures: Consumer<in Throwable>) {
+        if (tracers.isEmpty()) {
+            return
+        }
+        val profileFile = reportDir.resolve("reports/configuration-cache/$cacheKey/configuration-cache-profile.json")
+        profileFile.parentFile.mkdirs()
+        profileFile.bufferedWriter().use { writer ->
+            ProfileJsonWriter(writer).write(tracers.toList())
+        }
+        tracers.clear()
+        logger.lifecycle("Configuration cache profile written to {}", profileFile)
+    }
+}
+
+
+/**
+ * Totals recorded for all occurrences of a frame with a given name.
+ *
+ * [bytes] and [nanos] include nested frames, while [selfBytes] and [selfNanos] exclude them.
+ * Frames nested in a frame of the same name only contribute to the self totals, so recursive types are not counted twice.
+ */
+internal
+class FrameStats {
+    var count = 0L
+    var bytes = 0L
+    var selfBytes = 0L
+    var nanos = 0L
+    var selfNanos = 0L
+}
+
+
+internal
+class ProfilingTracer(
+    val profile: String,
+    private val writePosition: () -> Long
+) : Tracer {
+
+    private
+    class OpenFrame(val name: String, val position: Long, val time: Long) {
+        var nestedBytes = 0L
+        var nestedNanos = 0L
+    }
+
+    private
+    val openFrames = ArrayList<OpenFrame>()
+
+    private
+    val openFrameCounts = HashMap<String, Int>()
+
+    val frames = HashMap<String, FrameStats>()
+
+    override fun open(frame: String) {
+        openFrames.add(OpenFrame(frame, writePosition(), System.nanoTime()))
+        openFrameCounts.merge(frame, 1) { count, delta -> count + delta }
+    }
+
+    override fun close(frame: String) {
+        val open = openFrames.removeAt(openFrames.size - 1)
+        require(open.name == frame) { "Unbalanced frames: expected '${open.name}' but got '$frame'." }
+        val bytes = writePosition() - open.position
+        val nanos = System.nanoTime() - open.time
+        openFrames.lastOrNull()?.let { parent ->
+            parent.nestedBytes += bytes
+            parent.nestedNanos += nanos
+        }
+        val isOutermost = openFrameCounts.merge(frame, -1) { count, delta -> count + delta } == 0
+        if (isOutermost) {
+            openFrameCounts.remove(frame)
+        }
+        frames.getOrPut(frame, ::FrameStats).run {
+            count += 1
+            selfBytes += bytes - open.nestedBytes
+            selfNanos += nanos - open.nestedNanos
+            if (isOutermost) {
+                this.bytes += bytes
+                this.nanos += nanos
+            }
+        }
+    }
+}
+
+
+private
+class ProfileJsonWriter(private val writer: Writer) {
+
+    private
+    val buffer = CharBuf.create(255)
+
+    fun write(tracers: List<ProfilingTracer>) {
+        writer.write("{\"frames\":[")
+        val frames = tracers
+            .flatMap { tracer -> tracer.frames.map { (name, stats) -> Triple(tracer.profile, name, stats) } }
+            .sortedByDescending { (_, _, stats) -> stats.selfBytes }
+        frames.forEachIndexed { index, (profile, name, stats) ->
+            if (index > 0) writer.write(",")
+            writer.write("{\"profile\":${jsonString(profile)},\"name\":${jsonString(name)},\"count\":${stats.count}")
+            writer.write(",\"bytes\":${stats.bytes},\"selfBytes\":${stats.selfBytes},\"nanos\":${stats.nanos},\"selfNanos\":${stats.selfNanos}}")
+        }
+        writer.write("],\"projects\":[")
+        projectsOf(frames).forEachIndexed { index, (profile, path, stats) ->
+            if (index > 0) writer.write(",")
+            writer.write("{\"profile\":${jsonString(profile)},\"path\":${jsonString(path)},\"tasks\":${stats.count}")
+            writer.write(",\"bytes\":${stats.bytes},\"nanos\":${stats.nanos}}")
+        }
+        writer.write("]}")
+    }
+
+    /**
+     * Sums up the task frames, which are named after the task path, per owning project.
+     */
+    private
+    fun projectsOf(frames: List<Triple<String, String, FrameStats>>): List<Triple<String, String, FrameStats>> =
+        frames
+            .filter { (_, name, _) -> name.startsWith(':') }
+            .groupBy({ (profile, name, _) -> profile to projectPathOf(name) }, { (_, _, stats) -> stats })
+            .map { (key, tasks) ->
+                Triple(key.first, key.second, FrameStats().apply {
+                    tasks.forEach { task ->
+                        count += task.count
+                        bytes += task.bytes
+                        nanos += task.nanos
+                    }
+                })
+            }
+            .sortedByDescending { (_, _, stats) -> stats.bytes }
+
+    private
+    fun projectPathOf(taskPath: String) =
+        taskPath.substringBeforeLast(':').ifEmpty { ":" }
+
+    private
+    fun jsonString(value: String): String =
+        if (value.isEmpty()) {
+            "\"\""
+        } else {
+            buffer.addJsonEscapedString(value)
+            buffer.toStringAndRecycle()
+        }
+}
@@ -34,6 +34,9 @@ import java.io.IOException
 import java.lang.reflect.Field
 
 
+/**
+ * Assigns the relevant fields of a bean through reflective [Field] access, see [BeanPropertyWriter] for why.
+ */
 class BeanPropertyReader(
     private val beanType: Class<*>,
     private val constructors: BeanConstructors,
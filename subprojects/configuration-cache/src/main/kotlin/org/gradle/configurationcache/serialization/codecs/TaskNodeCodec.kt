@@ -116,6 +116,9 @@ class TaskNodeCodec(
         }
     }
 
+    // The state of the task is decoded eagerly, in stream order, rather than on demand when the task is about to run.
+    // Values shared between tasks, such as file collections and providers, are encoded once and then referenced by id
+    // from the state of later tasks, so the state of a task cannot be decoded without decoding the state that precedes it.
     private
     suspend fun ReadContext.readTask(): Task {
         val taskType = readClassOf<Task>()
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache
+
+import org.gradle.util.internal.SupportedEncryptionAlgorithm
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.util.Random
+import javax.crypto.KeyGenerator
+
+
+class EncryptionStreamsTest {
+
+    private
+    val key = KeyGenerator.getInstance("AES").generateKey()
+
+    private
+    val random = Random(42)
+
+    @Test
+    fun `round trips data written in chunks of varying sizes`() {
+        for (algorithm in SupportedEncryptionAlgorithm.values()) {
+            for (size in listOf(0, 1, 15, 16, 17, 4096, 64 * 1024 - 1, 64 * 1024, 64 * 1024 + 1, 1_000_003)) {
+                val data = ByteArray(size).also(random::nextBytes)
+                assertThat(
+                    "${algorithm.transformation} with $size bytes",
+                    decrypt(algorithm, encrypt(algorithm, data)).contentEquals(data),
+                    equalTo(true)
+                )
+            }
+        }
+    }
+
+    @Test
+    fun `produces the same bytes as the cipher applied at once`() {
+        val algorithm = SupportedEncryptionAlgorithm.AES_ECB_PADDING
+        val data = ByteArray(200_000).also(random::nextBytes)
+        val expected = algorithm.newSession(key).encryptingCipher {}.doFinal(data)
+
+        assertThat(
+            encrypt(algorithm, data).contentEquals(expected),
+            equalTo(true)
+        )
+    }
+
+    private
+    fun encrypt(algorithm: SupportedEncryptionAlgorithm, data: ByteArray): ByteArray {
+        val output = ByteArrayOutputStream()
+        val cipher = algorithm.newSession(key).encryptingCipher(output::write)
+        BlockCipherOutputStream(output, cipher).use { stream ->
+            var offset = 0
+            while (offset < data.size) {
+                val length = minOf(data.size - offset, 1 + random.nextInt(100_000))
+                if (length == 1) stream.write(data[offset].toInt())
+                else stream.write(data, offset, length)
+                offset += length
+            }
+        }
+        return output.toByteArray()
+    }
+
+    private
+    fun decrypt(algorithm: SupportedEncryptionAlgorithm, data: ByteArray): ByteArray {
+        val input = ByteArrayInputStream(data)
+        val cipher = algorithm.newSession(key).decryptingCipher(input::read)
+        return BlockCipherInputStream(input, cipher).use { stream ->
+            val output = ByteArrayOutputStream()
+            val buffer = ByteArray(777)
+            while (true) {
+                val read = stream.read(buffer)
+                if (read == -1) break
+                output.write(buffer, 0, read)
+                val next = stream.read()
+                if (next == -1) break
+                output.write(next)
+            }
+            output.toByteArray()
+        }
+    }
+}
@@ -19,6 +19,9 @@ package org.gradle.configurationcache.fingerprint
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
 import org.gradle.api.Describable
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.logging.Logger
@@ -45,9 +48,13 @@ import org.gradle.configurationcache.serialization.runWriteOperation
 import org.gradle.internal.Try
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.internal.serialize.Decoder
 import org.gradle.internal.serialize.Encoder
+import org.gradle.internal.vfs.FileSystemAccess
+import org.gradle.internal.watch.vfs.FileSystemWatchingInformation
 import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Test
 import java.io.File
@@ -201,6 +208,84 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `input files are not snapshotted when a cheaper input is out-of-date`() {
+        val scriptFile = File("build.gradle.kts")
+        val host = mock<ConfigurationCacheFingerprintChecker.Host>()
+
+        assertThat(
+            checkFingerprintGiven(
+                host,
+                ConfigurationCacheFingerprint.InputFile(scriptFile, TestHashCodes.hashCodeFrom(1)),
+                ConfigurationCacheFingerprint.UndeclaredEnvironmentVariable("GRADLE_CC_TEST_UNDEFINED_VARIABLE", "some value")
+            ),
+            equalTo("environment variable 'GRADLE_CC_TEST_UNDEFINED_VARIABLE' has changed")
+        )
+        verify(host, never()).snapshotInputFiles(any())
+        verify(host, never()).hashCodeOf(any())
+    }
+
+    @Test
+    fun `input files are snapshotted before the first file is checked`() {
+        val scriptFile = File("build.gradle.kts")
+        val settingsFile = File("settings.gradle.kts")
+        val host = mock<ConfigurationCacheFingerprintChecker.Host> {
+            on { hashCodeOf(any()) } doReturn TestHashCodes.hashCodeFrom(1)
+        }
+
+        assertThat(
+            checkFingerprintGiven(
+                host,
+                ConfigurationCacheFingerprint.InputFile(settingsFile, TestHashCodes.hashCodeFrom(1)),
+                ConfigurationCacheFingerprint.InputFile(scriptFile, TestHashCodes.hashCodeFrom(1))
+            ),
+            nullValue()
+        )
+        verify(host, times(1)).snapshotInputFiles(listOf(settingsFile, scriptFile))
+    }
+
+    @Test
+    fun `input files are snapshotted in parallel chunks`() {
+        val files = (1..InputFilesSnapshotter.FILES_PER_SNAPSHOT_OPERATION * 2 + 1).map { File("input-$it.txt") }
+        val fileSystemAccess = mock<FileSystemAccess>()
+        val buildOperationExecutor = TestBuildOperationExecutor()
+
+        InputFilesSnapshotter(fileSystemAccess, watchingInformation(false), buildOperationExecutor).snapshot(files)
+
+        assertThat(buildOperationExecutor.operations.size, equalTo(3))
+        assertThat(buildOperationExecutor.operations.map { it.displayName }.toSet(), equalTo(setOf("Snapshot configuration inputs")))
+        files.forEach { verify(fileSystemAccess).read(it.absolutePath) }
+    }
+
+    @Test
+    fun `input files are not snapshotted up front when watching the file system`() {
+        val files = (1..InputFilesSnapshotter.FILES_PER_SNAPSHOT_OPERATION * 2).map { File("input-$it.txt") }
+        val fileSystemAccess = mock<FileSystemAccess>()
+        val buildOperationExecutor = TestBuildOperationExecutor()
+
+        InputFilesSnapshotter(fileSystemAccess, watchingInformation(true), buildOperationExecutor).snapshot(files)
+
+        assertThat(buildOperationExecutor.operations.size, equalTo(0))
+        verify(fileSystemAccess, never()).read(any())
+    }
+
+    @Test
+    fun `few input files are not snapshotted up front`() {
+        val files = (1..InputFilesSnapshotter.FILES_PER_SNAPSHOT_OPERATION).map { File("input-$it.txt") }
+        val fileSystemAccess = mock<FileSystemAccess>()
+        val buildOperationExecutor = TestBuildOperationExecutor()
+
+        InputFilesSnapshotter(fileSystemAccess, watchingInformation(false), buildOperationExecutor).snapshot(files)
+
+        assertThat(buildOperationExecutor.operations.size, equalTo(0))
+        verify(fileSystemAccess, never()).read(any())
+    }
+
+    private
+    fun watchingInformation(watching: Boolean): FileSystemWatchingInformation = mock {
+        on { isWatchingAnyLocations } doReturn watching
+    }
+
     private
     fun invalidationReasonForInitScriptsChange(
         from: Iterable<Pair<File, HashCode>>,
@@ -225,11 +310,11 @@ class ConfigurationCacheFingerprintCheckerTest {
     private
     fun checkFingerprintGiven(
         host: ConfigurationCacheFingerprintChecker.Host,
-        fingerprint: ConfigurationCacheFingerprint
+        vararg fingerprints: ConfigurationCacheFingerprint
     ): InvalidationReason? {
 
         val readContext = recordWritingOf {
-            write(fingerprint)
+            fingerprints.forEach { write(it) }
             write(null)
         }
 
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configurationcache.problems
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+
+class ProfilingTracerTest {
+
+    private
+    var position = 0L
+
+    private
+    val tracer = ProfilingTracer("test") { position }
+
+    @Test
+    fun `attributes nested bytes to the enclosing frame`() {
+        frame(":a:compile") {
+            position += 10
+            frame("Compile") {
+                position += 100
+            }
+        }
+
+        assertThat(tracer.frames.getValue(":a:compile").bytes, equalTo(110L))
+        assertThat(tracer.frames.getValue(":a:compile").selfBytes, equalTo(10L))
+        assertThat(tracer.frames.getValue("Compile").bytes, equalTo(100L))
+        assertThat(tracer.frames.getValue("Compile").selfBytes, equalTo(100L))
+    }
+
+    @Test
+    fun `does not count recursive frames twice`() {
+        frame("Node") {
+            position += 1
+            frame("Node") {
+                position += 2
+            }
+        }
+        frame("Node") {
+            position += 4
+        }
+
+        val stats = tracer.frames.getValue("Node")
+        assertThat(stats.count, equalTo(3L))
+        assertThat(stats.bytes, equalTo(7L))
+        assertThat(stats.selfBytes, equalTo(7L))
+    }
+
+    private
+    fun frame(name: String, action: () -> Unit) {
+        tracer.open(name)
+        action()
+        tracer.close(name)
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.taskgraph
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.test.fixtures.server.http.BlockingHttpServer
+import org.junit.Rule
+
+class ParallelTaskDependencyResolutionIntegrationTest extends AbstractIntegrationSpec {
+
+    @Rule
+    public final BlockingHttpServer server = new BlockingHttpServer()
+
+    def setup() {
+        server.start()
+        settingsFile << 'include "a", "b"'
+        buildFile << """
+            tasks.register("all") {
+                dependsOn(":a:thing", ":b:thing")
+            }
+        """
+        executer.beforeExecute {
+            withArgument("--parallel")
+            withArgument("--max-workers=4")
+            withArgument("-Dorg.gradle.internal.task-graph.parallel-resolution=true")
+        }
+    }
+
+    def "resolves the dependencies of tasks in different projects concurrently"() {
+        ['a', 'b'].each { name ->
+            file("$name/build.gradle") << """
+                tasks.register("thing") {
+                    dependsOn {
+                        ${server.callFromBuild(name)}
+                        []
+                    }
+                }
+            """
+        }
+        server.expectConcurrent("a", "b")
+
+        when:
+        run("all")
+
+        then:
+        result.assertTasksExecuted(":a:thing", ":b:thing", ":all")
+    }
+
+    def "reports failure to resolve the dependencies of a task"() {
+        file("a/build.gradle") << """
+            tasks.register("thing") {
+                dependsOn {
+                    throw new RuntimeException("broken dependencies")
+                }
+            }
+        """
+        file("b/build.gradle") << """
+            tasks.register("thing")
+        """
+
+        when:
+        fails("all")
+
+        then:
+        failure.assertHasDescription("Could not determine the dependencies of task ':a:thing'.")
+        failure.assertHasCause("broken dependencies")
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the edges of a synthetic plan with 500k nodes, shaped like the per-file transforms of a large build: many chains of steps that all start
+ * from a shared producer node, with every step depending on the one before it.
+ *
+ * <p>Run with {@code -prof gc} and look at {@code gc.alloc.rate.norm}. For {@link #buildGraph()} this is the number of bytes allocated to hold the graph,
+ * for {@link #visitEdges(Graph, Blackhole)} it is the number of bytes allocated while querying the edges of every node of an already built graph.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecutionPlanHeapBenchmark {
+    @Param({"500000"})
+    int nodes;
+
+    @Param({"1", "100"})
+    int chainLength;
+
+    @Benchmark
+    public List<Node> buildGraph() {
+        return buildGraph(nodes, chainLength);
+    }
+
+    @Benchmark
+    public void visitEdges(Graph graph, Blackhole blackhole) {
+        for (Node node : graph.nodes) {
+            for (Node successor : node.getDependencySuccessors()) {
+                blackhole.consume(successor);
+            }
+            for (Node predecessor : node.getDependencyPredecessors()) {
+                blackhole.consume(predecessor);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Graph {
+        List<Node> nodes;
+
+        @Setup(Level.Trial)
+        public void setup(ExecutionPlanHeapBenchmark benchmark) {
+            nodes = buildGraph(benchmark.nodes, benchmark.chainLength);
+        }
+    }
+
+    private static List<Node> buildGraph(int nodes, int chainLength) {
+        List<Node> graph = new ArrayList<>(nodes);
+        Node producer = new BenchmarkNode("producer");
+        graph.add(producer);
+        Node previous = producer;
+        for (int i = 1; i < nodes; i++) {
+            if (i % chainLength == 0) {
+                previous = producer;
+            }
+            Node node = new BenchmarkNode("step" + i);
+            node.addDependencySuccessor(previous);
+            graph.add(node);
+            previous = node;
+        }
+        return graph;
+    }
+
+    private static class BenchmarkNode extends CreationOrderedNode {
+        private final String name;
+
+        BenchmarkNode(String name) {
+            this.name = name;
+        }
+
+        @Nullable
+        @Override
+        public Throwable getNodeFailure() {
+            return null;
+        }
+
+        @Override
+        public void resolveDependencies(TaskDependencyResolver dependencyResolver) {
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -80,6 +80,11 @@ public interface GradleInternal extends Gradle, PluginAwareInternal {
      */
     ProjectEvaluationListener getProjectEvaluationBroadcaster();
 
+    /**
+     * Returns true when any {@link ProjectEvaluationListener} has been registered with this build, for example using {@link #beforeProject(org.gradle.api.Action)}.
+     */
+    boolean hasProjectEvaluationListeners();
+
     /**
      * The settings for this build.
      *
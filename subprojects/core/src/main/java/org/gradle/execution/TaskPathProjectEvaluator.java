@@ -19,13 +19,44 @@
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectState;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.buildtree.BuildModelParameters;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
+    /**
+     * When isolated projects is enabled and the build runs in parallel, configures the subprojects of a hierarchy in parallel.
+     */
+    public static final InternalFlag PARALLEL_CONFIGURATION = new InternalFlag("org.gradle.internal.isolated-projects.parallel-configuration");
+
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectLeaseRegistry projectLeaseRegistry;
+    private final boolean parallelConfiguration;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(
+        BuildCancellationToken cancellationToken,
+        BuildOperationExecutor buildOperationExecutor,
+        ProjectLeaseRegistry projectLeaseRegistry,
+        BuildModelParameters buildModelParameters,
+        InternalOptions internalOptions
+    ) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectLeaseRegistry = projectLeaseRegistry;
+        // Projects can only be configured independently of each other when isolated projects is enabled, as cross-project model access is then reported as a problem
+        this.parallelConfiguration = buildModelParameters.isIsolatedProjects() && internalOptions.getOption(PARALLEL_CONFIGURATION).get();
     }
 
     @Override
@@ -45,8 +76,57 @@ public void configureFully(ProjectInternal project) {
     @Override
     public void configureHierarchy(ProjectInternal project) {
         configure(project);
+        // Listeners registered with the build are shared by all projects and are not expected to be notified concurrently
+        if (parallelConfiguration && projectLeaseRegistry.getAllowsParallelExecution() && !project.getGradle().hasProjectEvaluationListeners()) {
+            ProjectState owner = project.getOwner();
+            // The caller may hold the lock for all projects, release it so that the workers can lock the projects they configure
+            projectLeaseRegistry.runAsIsolatedTask(() -> configureSubprojectsInParallel(owner));
+            return;
+        }
         for (Project sub : project.getSubprojects()) {
             configure((ProjectInternal) sub);
         }
     }
+
+    /**
+     * Configures the subprojects of the given project one level of the hierarchy at a time, so that a project is always configured after its parent
+     * and a worker never has to wait for another worker to finish configuring an ancestor. Each project is configured while holding its own project lock.
+     */
+    private void configureSubprojectsInParallel(ProjectState project) {
+        Collection<ProjectState> level = project.getChildProjects();
+        while (!level.isEmpty()) {
+            if (cancellationToken.isCancellationRequested()) {
+                throw new BuildCancelledException();
+            }
+            Collection<ProjectState> currentLevel = level;
+            buildOperationExecutor.runAllWithAccessToProjectState(queue -> {
+                for (ProjectState child : currentLevel) {
+                    queue.add(new ConfigureProject(child));
+                }
+            });
+            List<ProjectState> nextLevel = new ArrayList<>();
+            for (ProjectState child : currentLevel) {
+                nextLevel.addAll(child.getChildProjects());
+            }
+            level = nextLevel;
+        }
+    }
+
+    private static class ConfigureProject implements RunnableBuildOperation {
+        private final ProjectState project;
+
+        public ConfigureProject(ProjectState project) {
+            this.project = project;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            project.applyToMutableState(p -> project.ensureConfigured());
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure " + project.getDisplayName() + " in parallel");
+        }
+    }
 }
@@ -40,6 +40,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
@@ -67,7 +68,7 @@ public int compare(Node node1, Node node2) {
     };
 
     private final Set<Node> waitingToStartNodes = new HashSet<>();
-    private final ExecutionQueue readyNodes = new ExecutionQueue();
+    private final ExecutionQueue readyNodes;
     private final List<Throwable> failures = new ArrayList<>();
     private final List<DiagnosticEvent> diagnosticEvents = new ArrayList<>();
     private final String displayName;
@@ -84,6 +85,10 @@ public int compare(Node node1, Node node2) {
     private final Map<Pair<Node, Node>, Boolean> reachableCache = new HashMap<>();
     private final OrdinalNodeAccess ordinalNodeAccess;
     private final Consumer<LocalTaskNode> completionHandler;
+    private final TaskDurationHistory durationHistory;
+    // The expected duration of the longest path from each node to the end of the plan, when scheduling by critical path
+    private final Map<Node, Long> remainingDurations = new HashMap<>();
+    private final Map<Node, Long> executionStartTimes = new HashMap<>();
 
     // When true, there may be nodes that are both ready and "selectable", which means their project and resources are able to be locked
     // When false, there are definitely no nodes that are "selectable"
@@ -100,7 +105,8 @@ public DefaultFinalizedExecutionPlan(
         List<Node> scheduledNodes,
         boolean continueOnFailure,
         QueryableExecutionPlan contents,
-        Consumer<LocalTaskNode> completionHandler
+        Consumer<LocalTaskNode> completionHandler,
+        TaskDurationHistory durationHistory
     ) {
         this.displayName = displayName;
         this.outputHierarchy = outputHierarchy;
@@ -110,6 +116,13 @@ public DefaultFinalizedExecutionPlan(
         this.continueOnFailure = continueOnFailure;
         this.contents = contents;
         this.completionHandler = completionHandler;
+        this.durationHistory = durationHistory;
+        if (durationHistory.isEnabled()) {
+            calculateRemainingDurations(scheduledNodes);
+            this.readyNodes = new ExecutionQueue(longestRemainingDurationFirst(remainingDurations));
+        } else {
+            this.readyNodes = new ExecutionQueue(NODE_EXECUTION_ORDER);
+        }
 
         SetMultimap<FinalizerGroup, FinalizerGroup> reachableGroups = LinkedHashMultimap.create();
         for (Node node : scheduledNodes) {
@@ -129,6 +142,48 @@ public DefaultFinalizedExecutionPlan(
         lockCoordinator.addLockReleaseListener(resourceUnlockListener);
     }
 
+    /**
+     * Calculates the expected duration of the longest path from each node to the end of the plan.
+     * The scheduled nodes are ordered so that each node comes after its dependencies, so visit them in reverse.
+     */
+    private void calculateRemainingDurations(List<Node> scheduledNodes) {
+        for (int i = scheduledNodes.size() - 1; i >= 0; i--) {
+            Node node = scheduledNodes.get(i);
+            long longestDependentPath = 0;
+            for (Node dependent : node.getDependencyPredecessors()) {
+                Long remaining = remainingDurations.get(dependent);
+                if (remaining != null && remaining > longestDependentPath) {
+                    longestDependentPath = remaining;
+                }
+            }
+            remainingDurations.put(node, durationHistory.getExpectedDuration(node) + longestDependentPath);
+        }
+    }
+
+    private static Comparator<Node> longestRemainingDurationFirst(Map<Node, Long> remainingDurations) {
+        return (node1, node2) -> {
+            if (node1.isPriority() == node2.isPriority()) {
+                long remaining1 = remainingDurations.getOrDefault(node1, 0L);
+                long remaining2 = remainingDurations.getOrDefault(node2, 0L);
+                if (remaining1 != remaining2) {
+                    return remaining1 > remaining2 ? -1 : 1;
+                }
+            }
+            return NODE_EXECUTION_ORDER.compare(node1, node2);
+        };
+    }
+
+    /**
+     * Schedules a node that runs before or after the given node with the same ordering.
+     */
+    private void scheduleWith(Node node, Node other) {
+        other.setIndex(node.getIndex());
+        Long remaining = remainingDurations.get(node);
+        if (remaining != null) {
+            remainingDurations.put(other, remaining);
+        }
+    }
+
     @Override
     public String getDisplayName() {
         return displayName;
@@ -151,6 +206,8 @@ public void close() {
         readyNodes.clear();
         runningNodes.clear();
         reachableCache.clear();
+        remainingDurations.clear();
+        executionStartTimes.clear();
     }
 
     private void resourceUnlocked(ResourceLock resourceLock) {
@@ -261,7 +318,7 @@ public Selection<Node> selectNext() {
                 if (node.hasPendingPreExecutionNodes()) {
                     // The node is ready to execute and its pre-execution nodes have not been scheduled, so do this now
                     node.visitPreExecutionNodes(prepareNode -> {
-                        prepareNode.setIndex(node.getIndex());
+                        scheduleWith(node, prepareNode);
                         prepareNode.require();
                         prepareNode.updateAllDependenciesComplete();
                         node.addDependencySuccessor(prepareNode);
@@ -280,6 +337,9 @@ public Selection<Node> selectNext() {
                     readyNodes.remove();
                     waitingToStartNodes.remove(node);
                     node.getMutationInfo().started();
+                    if (durationHistory.isEnabled()) {
+                        executionStartTimes.put(node, System.nanoTime());
+                    }
                     return Selection.of(node);
                 }
             }
@@ -351,7 +411,7 @@ private boolean conflictsWithOtherNodes(Node node, MutationInfo mutations) {
             return true;
         } else if (mutationConflictsWithOtherNodes(node, mutations)) {
             return true;
-        } else if (destroysNotYetConsumedOutputOfAnotherNode(node, mutations.destroyablePaths)) {
+        } else if (destroysNotYetConsumedOutputOfAnotherNode(node, mutations.getDestroyablePaths())) {
             LOGGER.debug("Node {} destroys not yet consumed output of another node", node);
             return true;
         }
@@ -409,8 +469,8 @@ private boolean canRunWithCurrentlyExecutedNodes(MutationInfo mutations) {
     }
 
     private boolean mutationConflictsWithOtherNodes(Node node, MutationInfo mutations) {
-        Set<String> nodeOutputPaths = mutations.outputPaths;
-        Set<String> nodeDestroysPaths = mutations.destroyablePaths;
+        Set<String> nodeOutputPaths = mutations.getOutputPaths();
+        Set<String> nodeDestroysPaths = mutations.getDestroyablePaths();
         if (nodeOutputPaths.isEmpty() && nodeDestroysPaths.isEmpty()) {
             return false;
         }
@@ -547,6 +607,7 @@ public void finishedExecuting(Node node, @Nullable Throwable failure) {
         lockCoordinator.assertHasStateLock();
         try {
             runningNodes.remove(node);
+            Long startTime = executionStartTimes.remove(node);
 
             if (failure != null) {
                 node.setExecutionFailure(failure);
@@ -565,8 +626,11 @@ public void finishedExecuting(Node node, @Nullable Throwable failure) {
                 handleFailure(node);
             } else {
                 LOGGER.debug("Node {} finished executing", node);
+                if (startTime != null) {
+                    durationHistory.executed(node, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                }
                 node.visitPostExecutionNodes(postNode -> {
-                    postNode.setIndex(node.getIndex());
+                    scheduleWith(node, postNode);
                     postNode.require();
                     postNode.updateAllDependenciesComplete();
                     addNodeToPlan(postNode);
@@ -679,12 +743,16 @@ public boolean allExecutionComplete() {
     }
 
     /**
-     * An ordered queue of nodes, sorted by {@link #NODE_EXECUTION_ORDER}.
+     * An ordered queue of nodes, sorted by {@link #NODE_EXECUTION_ORDER} or by the longest remaining path when scheduling by critical path.
      */
     static class ExecutionQueue {
-        private final Set<Node> nodes = new TreeSet<>(NODE_EXECUTION_ORDER);
+        private final Set<Node> nodes;
         private Iterator<Node> current;
 
+        ExecutionQueue(Comparator<Node> order) {
+            this.nodes = new TreeSet<>(order);
+        }
+
         public void clear() {
             nodes.clear();
             current = null;
@@ -34,6 +34,7 @@
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.logging.text.TreeFormatter;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
+import org.gradle.internal.resources.ResourceLockState;
 import org.gradle.internal.work.WorkerLeaseRegistry.WorkerLease;
 import org.gradle.internal.work.WorkerLeaseService;
 
@@ -370,14 +371,20 @@ public void run() {
                     releaseLeaseOnCompletion = false;
                 }
 
-                while (true) {
-                    WorkItem workItem = getNextItem(workerLease);
-                    if (workItem == null) {
-                        break;
+                WorkSource.Selection<WorkItem> next = WorkSource.Selection.noWorkReadyToStart();
+                while (!next.isNoMoreWorkToStart()) {
+                    WorkItem workItem;
+                    if (next.isNoWorkReadyToStart()) {
+                        workItem = getNextItem(workerLease);
+                        if (workItem == null) {
+                            break;
+                        }
+                    } else {
+                        workItem = next.getItem();
                     }
                     Object selected = workItem.selection.getItem();
                     LOGGER.info("{} ({}) started.", selected, Thread.currentThread());
-                    execute(selected, workItem.plan, workItem.executor);
+                    next = execute(selected, workItem.plan, workItem.executor);
                 }
 
                 if (releaseLeaseOnCompletion) {
@@ -400,7 +407,9 @@ private WorkItem getNextItem(final WorkerLease workerLease) {
             stats.startSelect();
             try {
                 selected = MutableReference.empty();
+                stats.startAcquireStateLock();
                 coordinationService.withStateLock(resourceLockState -> {
+                    stats.stateLockAcquired();
                     stats.finishWaitingForNextItem();
                     if (cancellationToken.isCancellationRequested()) {
                         queue.cancelExecution();
@@ -455,26 +464,29 @@ private WorkItem getNextItem(final WorkerLease workerLease) {
             return selected.get();
         }
 
-        private void execute(Object selected, WorkSource<Object> executionPlan, Action<Object> worker) {
+        /**
+         * Executes the given item, marks it as finished and, when possible, selects the next item to execute.
+         */
+        private WorkSource.Selection<WorkItem> execute(Object selected, WorkSource<Object> executionPlan, Action<Object> worker) {
             Throwable failure = null;
+            stats.startExecute();
             try {
-                stats.startExecute();
-                try {
-                    worker.execute(selected);
-                } catch (Throwable t) {
-                    failure = t;
-                } finally {
-                    stats.finishExecute();
-                }
+                worker.execute(selected);
+            } catch (Throwable t) {
+                failure = t;
             } finally {
-                markFinished(selected, executionPlan, failure);
+                stats.finishExecute();
             }
+            return markFinished(selected, executionPlan, failure);
         }
 
-        private void markFinished(Object selected, WorkSource<Object> executionPlan, @Nullable Throwable failure) {
+        private WorkSource.Selection<WorkItem> markFinished(Object selected, WorkSource<Object> executionPlan, @Nullable Throwable failure) {
             stats.startMarkFinished();
             try {
-                coordinationService.withStateLock(() -> {
+                MutableReference<WorkSource.Selection<WorkItem>> next = MutableReference.of(WorkSource.Selection.noWorkReadyToStart());
+                stats.startAcquireStateLock();
+                coordinationService.withStateLock(resourceLockState -> {
+                    stats.stateLockAcquired();
                     try {
                         executionPlan.finishedExecuting(selected, failure);
                     } catch (Throwable t) {
@@ -483,11 +495,44 @@ private void markFinished(Object selected, WorkSource<Object> executionPlan, @Nu
                     // Notify other threads that the item is finished as this may unblock further work
                     // or this might be the last item in the queue
                     coordinationService.notifyStateChange();
+                    next.set(selectNextWhileHoldingLease(resourceLockState));
+                    return FINISHED;
                 });
+                return next.get();
             } finally {
                 stats.finishMarkFinished();
             }
         }
+
+        /**
+         * Selects the next item to execute, using the worker lease that this worker holds for the item that just finished.
+         * This avoids releasing the state lock and then contending with the other workers to acquire it again.
+         * Does not wait for work to become ready, the worker falls back to {@link #getNextItem(WorkerLease)} for that.
+         */
+        private WorkSource.Selection<WorkItem> selectNextWhileHoldingLease(ResourceLockState resourceLockState) {
+            if (cancellationToken.isCancellationRequested()) {
+                queue.cancelExecution();
+            }
+            WorkSource.State state = queue.executionState();
+            if (state == WorkSource.State.NoMoreWorkToStart) {
+                return WorkSource.Selection.noMoreWorkToStart();
+            }
+            if (state == WorkSource.State.NoWorkReadyToStart || !workerLease.isLockedByCurrentThread()) {
+                return WorkSource.Selection.noWorkReadyToStart();
+            }
+            WorkSource.Selection<WorkItem> workItem;
+            try {
+                workItem = queue.selectNext();
+            } catch (Throwable t) {
+                resourceLockState.releaseLocks();
+                queue.abortAllAndFail(t);
+                return WorkSource.Selection.noMoreWorkToStart();
+            }
+            if (!workItem.isNoMoreWorkToStart() && !workItem.isNoWorkReadyToStart()) {
+                stats.selectedWhileHoldingLease();
+            }
+            return workItem;
+        }
     }
 
     /**
@@ -524,6 +569,12 @@ private interface WorkerStats extends WorkerState {
 
         void finishMarkFinished();
 
+        void startAcquireStateLock();
+
+        void stateLockAcquired();
+
+        void selectedWhileHoldingLease();
+
         void finish();
     }
 
@@ -630,6 +681,18 @@ public void startMarkFinished() {
             public void finishMarkFinished() {
             }
 
+            @Override
+            public void startAcquireStateLock() {
+            }
+
+            @Override
+            public void stateLockAcquired() {
+            }
+
+            @Override
+            public void selectedWhileHoldingLease() {
+            }
+
             @Override
             public void finish() {
                 state.set(ExecutionState.Stopped);
@@ -678,10 +741,18 @@ public void report() {
                 LOGGER.lifecycle("average select time: " + format(stats -> stats.totalSelectTime));
                 LOGGER.lifecycle("average execute time: " + format(stats -> stats.totalExecuteTime));
                 LOGGER.lifecycle("average finish time: " + format(stats -> stats.totalMarkFinishedTime));
+                LOGGER.lifecycle("average state lock wait time: " + format(stats -> stats.totalStateLockWaitTime));
+                LOGGER.lifecycle("state lock acquisitions: " + sum(stats -> stats.stateLockAcquisitions));
+                LOGGER.lifecycle("contended state lock acquisitions: " + sum(stats -> stats.contendedStateLockAcquisitions));
+                LOGGER.lifecycle("items selected on completion of previous item: " + sum(stats -> stats.selectedWhileHoldingLease));
             }
             completedWorkers.clear();
         }
 
+        private long sum(ToLongFunction<CollectingWorkerStats> statsProperty) {
+            return completedWorkers.stream().mapToLong(statsProperty).sum();
+        }
+
         private String format(ToLongFunction<CollectingWorkerStats> statsProperty) {
             BigDecimal averageNanos = BigDecimal.valueOf(completedWorkers.stream().mapToLong(statsProperty).sum() / completedWorkers.size());
             return DecimalFormat.getNumberInstance().format(averageNanos.divide(BigDecimal.valueOf(1000000), RoundingMode.HALF_UP)) + "ms";
@@ -689,6 +760,8 @@ private String format(ToLongFunction<CollectingWorkerStats> statsProperty) {
     }
 
     private static class CollectingWorkerStats implements WorkerStats {
+        // Acquiring an uncontended monitor takes well below this
+        private static final long CONTENDED_THRESHOLD_NANOS = 10_000;
         final long startTime;
         private final CollectingExecutorStats owner;
         private final WorkerState delegate;
@@ -697,6 +770,11 @@ private static class CollectingWorkerStats implements WorkerStats {
         long totalSelectTime;
         long totalExecuteTime;
         long totalMarkFinishedTime;
+        long startAcquireStateLock;
+        long totalStateLockWaitTime;
+        long stateLockAcquisitions;
+        long contendedStateLockAcquisitions;
+        long selectedWhileHoldingLease;
 
         public CollectingWorkerStats(CollectingExecutorStats owner, WorkerState delegate) {
             this.owner = owner;
@@ -748,6 +826,33 @@ public void finishMarkFinished() {
             }
         }
 
+        @Override
+        public void startAcquireStateLock() {
+            startAcquireStateLock = System.nanoTime();
+        }
+
+        @Override
+        public void stateLockAcquired() {
+            if (startAcquireStateLock == 0) {
+                // Reacquired after waiting for a state change, which is not contention
+                return;
+            }
+            long duration = System.nanoTime() - startAcquireStateLock;
+            startAcquireStateLock = 0;
+            stateLockAcquisitions++;
+            if (duration > CONTENDED_THRESHOLD_NANOS) {
+                contendedStateLockAcquisitions++;
+            }
+            if (duration > 0) {
+                totalStateLockWaitTime += duration;
+            }
+        }
+
+        @Override
+        public void selectedWhileHoldingLease() {
+            selectedWhileHoldingLease++;
+        }
+
         @Override
         public void startWaitingForNextItem() {
             delegate.startWaitingForNextItem();
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.gradle.api.internal.tasks.TaskExecutionOutcome;
+import org.gradle.cache.scopes.BuildTreeScopedCacheBuilderFactory;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the durations of task executions in the project cache directory, keyed by task identity path.
+ * Only executions that ran the task actions are recorded.
+ *
+ * <p>Enabled with the {@link #CRITICAL_PATH_SCHEDULING} internal flag.
+ * The durations are loaded on first use and written back when the build tree finishes.</p>
+ */
+public class DefaultTaskDurationHistory implements TaskDurationHistory, Stoppable {
+    public static final InternalFlag CRITICAL_PATH_SCHEDULING = new InternalFlag("org.gradle.internal.executor.critical-path");
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultTaskDurationHistory.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final BuildTreeScopedCacheBuilderFactory cacheBuilderFactory;
+    private final boolean enabled;
+    private Map<String, Long> durations;
+    private boolean changed;
+
+    public DefaultTaskDurationHistory(BuildTreeScopedCacheBuilderFactory cacheBuilderFactory, InternalOptions internalOptions) {
+        this.cacheBuilderFactory = cacheBuilderFactory;
+        this.enabled = internalOptions.getOption(CRITICAL_PATH_SCHEDULING).get();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized long getExpectedDuration(Node node) {
+        String key = keyFor(node);
+        if (key == null) {
+            return 0;
+        }
+        Long duration = getDurations().get(key);
+        return duration == null ? 0 : duration;
+    }
+
+    @Override
+    public synchronized void executed(Node node, long durationMillis) {
+        String key = keyFor(node);
+        if (key == null || !actionsExecuted((LocalTaskNode) node)) {
+            return;
+        }
+        Long previous = getDurations().get(key);
+        // Smooth out the odd slow execution
+        long expected = previous == null ? durationMillis : (previous + durationMillis) / 2;
+        getDurations().put(key, expected);
+        changed = true;
+    }
+
+    /**
+     * Up-to-date, from-cache and skipped executions say nothing about how long the task takes when it has to run, so leave the estimate unchanged.
+     */
+    private static boolean actionsExecuted(LocalTaskNode node) {
+        return node.getTask().getState().getOutcome() == TaskExecutionOutcome.EXECUTED;
+    }
+
+    @Nullable
+    private String keyFor(Node node) {
+        if (!enabled || !(node instanceof LocalTaskNode)) {
+            return null;
+        }
+        return ((LocalTaskNode) node).getTask().getIdentityPath().getPath();
+    }
+
+    private Map<String, Long> getDurations() {
+        if (durations == null) {
+            durations = load(getFile());
+        }
+        return durations;
+    }
+
+    private File getFile() {
+        return new File(cacheBuilderFactory.baseDirForCache("task-durations"), "durations.bin");
+    }
+
+    private static Map<String, Long> load(File file) {
+        Map<String, Long> durations = new HashMap<>();
+        if (!file.isFile()) {
+            return durations;
+        }
+        try (KryoBackedDecoder decoder = new KryoBackedDecoder(new FileInputStream(file))) {
+            if (decoder.readSmallInt() != FORMAT_VERSION) {
+                return durations;
+            }
+            int count = decoder.readSmallInt();
+            for (int i = 0; i < count; i++) {
+                durations.put(decoder.readString(), decoder.readSmallLong());
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Could not read task durations from {}.", file, e);
+            durations.clear();
+        }
+        return durations;
+    }
+
+    private static void write(Encoder encoder, Map<String, Long> durations) throws Exception {
+        encoder.writeSmallInt(FORMAT_VERSION);
+        encoder.writeSmallInt(durations.size());
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            encoder.writeString(entry.getKey());
+            encoder.writeSmallLong(entry.getValue());
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!changed) {
+            return;
+        }
+        File file = getFile();
+        File tempFile = null;
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            tempFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            try (KryoBackedEncoder encoder = new KryoBackedEncoder(new FileOutputStream(tempFile))) {
+                write(encoder, durations);
+            }
+            // Concurrent builds of the same build tree may both write, in which case the last one wins
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            LOGGER.debug("Could not write task durations to {}.", file, e);
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+        changed = false;
+    }
+}
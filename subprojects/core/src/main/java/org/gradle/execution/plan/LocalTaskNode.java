@@ -117,7 +117,7 @@ public Throwable getNodeFailure() {
     @Override
     public void resolveDependencies(TaskDependencyResolver dependencyResolver) {
         // Make sure it has been configured
-        taskProject.getTasks().prepareForExecution(task);
+        dependencyResolver.prepareForExecution(taskProject, task);
 
         for (Node targetNode : getDependencies(dependencyResolver)) {
             addDependencySuccessor(targetNode);
@@ -169,7 +169,7 @@ private void addOutputFilesToMutations(Set<OutputFilePropertySpec> outputFilePro
         final MutationInfo mutations = getMutationInfo();
         outputFilePropertySpecs.forEach(spec -> {
             File outputLocation = spec.getOutputFile();
-            mutations.outputPaths.add(outputLocation.getAbsolutePath());
+            mutations.addOutputPath(outputLocation.getAbsolutePath());
             mutations.hasOutputs = true;
         });
     }
@@ -177,14 +177,14 @@ private void addOutputFilesToMutations(Set<OutputFilePropertySpec> outputFilePro
     private void addLocalStateFilesToMutations(FileCollection localStateFiles) {
         final MutationInfo mutations = getMutationInfo();
         localStateFiles.forEach(file -> {
-            mutations.outputPaths.add(file.getAbsolutePath());
+            mutations.addOutputPath(file.getAbsolutePath());
             mutations.hasLocalState = true;
         });
     }
 
     private void addDestroyablesToMutations(FileCollection destroyables) {
         destroyables
-            .forEach(file -> getMutationInfo().destroyablePaths.add(file.getAbsolutePath()));
+            .forEach(file -> getMutationInfo().addDestroyablePath(file.getAbsolutePath()));
     }
 
     @Override
@@ -241,7 +241,7 @@ public void resolveMutations() {
             throw new TaskExecutionException(task, e);
         }
 
-        if (!mutations.destroyablePaths.isEmpty()) {
+        if (!mutations.getDestroyablePaths().isEmpty()) {
             if (mutations.hasOutputs) {
                 throw new IllegalStateException("Task " + taskNode + " has both outputs and destroyables defined.  A task can define either outputs or destroyables, but not both.");
             }
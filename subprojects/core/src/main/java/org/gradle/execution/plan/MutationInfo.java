@@ -18,12 +18,14 @@
 
 import com.google.common.collect.Sets;
 
+import java.util.Collections;
 import java.util.Set;
 
 class MutationInfo {
-    private final Set<Node> nodesYetToConsumeOutput = Sets.newHashSet();
-    final Set<String> outputPaths = Sets.newHashSet();
-    final Set<String> destroyablePaths = Sets.newHashSet();
+    // These are created on demand, as most nodes of a large graph have no outputs or destroyables and many have no consumers
+    private Set<Node> nodesYetToConsumeOutput;
+    private Set<String> outputPaths;
+    private Set<String> destroyablePaths;
     boolean hasFileInputs;
     boolean hasOutputs;
     boolean hasLocalState;
@@ -35,18 +37,45 @@ void started() {
     }
 
     boolean isOutputProducedButNotYetConsumed() {
-        return outputProduced && !nodesYetToConsumeOutput.isEmpty();
+        return outputProduced && nodesYetToConsumeOutput != null && !nodesYetToConsumeOutput.isEmpty();
     }
 
     public Set<Node> getNodesYetToConsumeOutput() {
-        return nodesYetToConsumeOutput;
+        return nodesYetToConsumeOutput == null ? Collections.emptySet() : nodesYetToConsumeOutput;
     }
 
     public void consumerCompleted(Node node) {
-        nodesYetToConsumeOutput.remove(node);
+        if (nodesYetToConsumeOutput != null) {
+            nodesYetToConsumeOutput.remove(node);
+        }
     }
 
     public void addConsumer(Node node) {
+        if (nodesYetToConsumeOutput == null) {
+            nodesYetToConsumeOutput = Sets.newHashSet();
+        }
         nodesYetToConsumeOutput.add(node);
     }
+
+    Set<String> getOutputPaths() {
+        return outputPaths == null ? Collections.emptySet() : outputPaths;
+    }
+
+    void addOutputPath(String path) {
+        if (outputPaths == null) {
+            outputPaths = Sets.newHashSet();
+        }
+        outputPaths.add(path);
+    }
+
+    Set<String> getDestroyablePaths() {
+        return destroyablePaths == null ? Collections.emptySet() : destroyablePaths;
+    }
+
+    void addDestroyablePath(String path) {
+        if (destroyablePaths == null) {
+            destroyablePaths = Sets.newHashSet();
+        }
+        destroyablePaths.add(path);
+    }
 }
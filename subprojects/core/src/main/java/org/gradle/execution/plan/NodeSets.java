@@ -16,6 +16,8 @@
 
 package org.gradle.execution.plan;
 
+import com.google.common.collect.ImmutableSortedSet;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NavigableSet;
@@ -28,6 +30,10 @@ public static NavigableSet<Node> newSortedNodeSet() {
         return new TreeSet<>(NodeComparator.INSTANCE);
     }
 
+    public static NavigableSet<Node> sortedSetOf(Node node) {
+        return ImmutableSortedSet.orderedBy(NodeComparator.INSTANCE).add(node).build();
+    }
+
     public static List<Node> sortedListOf(Set<Node> nodes) {
         List<Node> sorted = new ArrayList<>(nodes);
         sorted.sort(NodeComparator.INSTANCE);
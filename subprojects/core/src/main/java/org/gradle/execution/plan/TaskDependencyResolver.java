@@ -17,35 +17,252 @@
 package org.gradle.execution.plan;
 
 import org.gradle.api.NonNullApi;
+import org.gradle.api.Task;
 import org.gradle.api.internal.TaskInternal;
+import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.tasks.CachingTaskDependencyResolveContext;
+import org.gradle.api.specs.Spec;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.buildoption.InternalOptions;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
 import org.gradle.internal.service.scopes.Scopes;
 import org.gradle.internal.service.scopes.ServiceScope;
 
 import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.collect.Sets.newIdentityHashSet;
 
 @NonNullApi
 @ServiceScope(Scopes.Build.class)
 public class TaskDependencyResolver {
+    public static final InternalFlag PARALLEL_RESOLUTION = new InternalFlag("org.gradle.internal.task-graph.parallel-resolution");
+
     private final List<DependencyResolver> dependencyResolvers;
+    @Nullable
+    private final BuildOperationExecutor buildOperationExecutor;
+    @Nullable
+    private final ProjectLeaseRegistry projectLeaseRegistry;
+    @Nullable
+    private final TaskNodeFactory taskNodeFactory;
+    private final boolean parallelResolution;
+    // Dependencies resolved ahead of time by another thread, keyed by the dependencies object
+    private final Map<Object, Set<Node>> prefetched = Collections.synchronizedMap(new IdentityHashMap<>());
+    // Failures that happened while resolving ahead of time, keyed by the task or dependencies object that failed
+    private final Map<Object, Exception> prefetchFailures = Collections.synchronizedMap(new IdentityHashMap<>());
     private CachingTaskDependencyResolveContext<Node> context;
 
     public TaskDependencyResolver(List<DependencyResolver> dependencyResolvers) {
         this.dependencyResolvers = dependencyResolvers;
+        this.buildOperationExecutor = null;
+        this.projectLeaseRegistry = null;
+        this.taskNodeFactory = null;
+        this.parallelResolution = false;
+        this.context = createTaskDependencyResolverContext(dependencyResolvers);
+    }
+
+    @Inject
+    public TaskDependencyResolver(
+        List<DependencyResolver> dependencyResolvers,
+        BuildOperationExecutor buildOperationExecutor,
+        ProjectLeaseRegistry projectLeaseRegistry,
+        TaskNodeFactory taskNodeFactory,
+        InternalOptions internalOptions
+    ) {
+        this.dependencyResolvers = dependencyResolvers;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectLeaseRegistry = projectLeaseRegistry;
+        this.taskNodeFactory = taskNodeFactory;
+        this.parallelResolution = internalOptions.getOption(PARALLEL_RESOLUTION).get();
         this.context = createTaskDependencyResolverContext(dependencyResolvers);
     }
 
     public void clear() {
         context = createTaskDependencyResolverContext(dependencyResolvers);
+        prefetched.clear();
+        prefetchFailures.clear();
     }
 
     private static CachingTaskDependencyResolveContext<Node> createTaskDependencyResolverContext(List<DependencyResolver> workResolvers) {
         return new CachingTaskDependencyResolveContext<Node>(workResolvers);
     }
 
+    /**
+     * Makes sure the given task has been configured.
+     *
+     * <p>When configuring the task ahead of time failed, the failure is rethrown rather than running the configuration of the task again.</p>
+     */
+    public void prepareForExecution(ProjectInternal project, TaskInternal task) {
+        rethrowPrefetchFailure(task);
+        project.getTasks().prepareForExecution(task);
+    }
+
     public Set<Node> resolveDependenciesFor(@Nullable TaskInternal task, Object dependencies) {
+        rethrowPrefetchFailure(dependencies);
+        Set<Node> resolved = prefetched.remove(dependencies);
+        if (resolved != null) {
+            return resolved;
+        }
         return context.getDependencies(task, dependencies);
     }
+
+    private void rethrowPrefetchFailure(Object key) {
+        Exception failure = prefetchFailures.remove(key);
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
+    }
+
+    /**
+     * Resolves the dependencies of the tasks reachable from the given nodes ahead of time, when parallel resolution is enabled.
+     *
+     * <p>Tasks are resolved one wave of dependencies at a time, using one build operation per project. Each operation holds the lock
+     * of its project and uses its own resolve context. The project locks held by the calling thread are released while the operations run.
+     * The results are handed out by {@link #resolveDependenciesFor(TaskInternal, Object)}, so the caller still builds the graph in its usual
+     * order on a single thread.</p>
+     *
+     * <p>User code may have partially run when resolving a task fails, so the failure is not retried. It is rethrown when the caller
+     * reaches the task, and no further tasks are resolved ahead of time.</p>
+     *
+     * <p>Nodes for tasks in other builds can only be created by the thread that owns the work graph. Dependencies that refer to such a
+     * task for the first time are left for the caller to resolve.</p>
+     */
+    public void prefetchDependenciesFor(Collection<? extends Node> nodes, Spec<? super Task> filter) {
+        if (!parallelResolution || buildOperationExecutor == null || projectLeaseRegistry == null || taskNodeFactory == null || !projectLeaseRegistry.getAllowsParallelExecution()) {
+            return;
+        }
+        Set<Node> seen = newIdentityHashSet();
+        List<LocalTaskNode> wave = new ArrayList<>();
+        addToWave(nodes, filter, seen, wave);
+        AtomicBoolean failed = new AtomicBoolean();
+        while (!wave.isEmpty() && !failed.get()) {
+            Map<ProjectInternal, List<LocalTaskNode>> nodesByProject = new LinkedHashMap<>();
+            for (LocalTaskNode node : wave) {
+                nodesByProject.computeIfAbsent(node.getOwningProject(), project -> new ArrayList<>()).add(node);
+            }
+            Queue<Node> successors = new ConcurrentLinkedQueue<>();
+            projectLeaseRegistry.runAsIsolatedTask(() -> buildOperationExecutor.runAllWithAccessToProjectState(queue -> {
+                for (Map.Entry<ProjectInternal, List<LocalTaskNode>> entry : nodesByProject.entrySet()) {
+                    queue.add(new PrefetchDependencies(entry.getKey(), entry.getValue(), successors, failed));
+                }
+            }));
+            wave.clear();
+            addToWave(successors, filter, seen, wave);
+        }
+    }
+
+    private static void addToWave(Collection<? extends Node> nodes, Spec<? super Task> filter, Set<Node> seen, List<LocalTaskNode> wave) {
+        for (Node node : nodes) {
+            if (!(node instanceof LocalTaskNode) || node.getDependenciesProcessed() || !seen.add(node)) {
+                continue;
+            }
+            LocalTaskNode taskNode = (LocalTaskNode) node;
+            if (filter.isSatisfiedBy(taskNode.getTask())) {
+                wave.add(taskNode);
+            }
+        }
+    }
+
+    private class PrefetchDependencies implements RunnableBuildOperation {
+        private final ProjectInternal project;
+        private final List<LocalTaskNode> nodes;
+        private final Queue<Node> successors;
+        private final AtomicBoolean failed;
+        private CachingTaskDependencyResolveContext<Node> context = createTaskDependencyResolverContext(dependencyResolvers);
+
+        PrefetchDependencies(ProjectInternal project, List<LocalTaskNode> nodes, Queue<Node> successors, AtomicBoolean failed) {
+            this.project = project;
+            this.nodes = nodes;
+            this.successors = successors;
+            this.failed = failed;
+        }
+
+        @Override
+        public void run(BuildOperationContext buildOperationContext) {
+            project.getOwner().applyToMutableState(p -> taskNodeFactory.createLocalNodesOnly(() -> {
+                for (LocalTaskNode node : nodes) {
+                    if (failed.get()) {
+                        return;
+                    }
+                    TaskInternal task = node.getTask();
+                    // Resolve in the same order as LocalTaskNode, so that a failure is reported where it would be otherwise
+                    Set<Node> dependencies;
+                    Set<Node> finalizers;
+                    if (!prepare(task)
+                        || (dependencies = prefetch(task, task.getTaskDependencies())) == null
+                        || prefetch(task, task.getLifecycleDependencies()) == null
+                        || (finalizers = prefetch(task, task.getFinalizedBy())) == null
+                        || prefetch(task, task.getMustRunAfter()) == null
+                        || prefetch(task, task.getShouldRunAfter()) == null) {
+                        continue;
+                    }
+                    successors.addAll(dependencies);
+                    successors.addAll(finalizers);
+                }
+            }));
+        }
+
+        private boolean prepare(TaskInternal task) {
+            try {
+                project.getTasks().prepareForExecution(task);
+                return true;
+            } catch (Exception e) {
+                recordFailure(task, e);
+                return false;
+            }
+        }
+
+        @Nullable
+        private Set<Node> prefetch(TaskInternal task, Object dependencies) {
+            Set<Node> resolved;
+            try {
+                resolved = context.getDependencies(task, dependencies);
+            } catch (Exception e) {
+                if (requiresTaskInAnotherBuild(e)) {
+                    // Start over with a fresh context, as the resolution was abandoned part way through
+                    context = createTaskDependencyResolverContext(dependencyResolvers);
+                } else {
+                    recordFailure(dependencies, e);
+                }
+                return null;
+            }
+            prefetched.put(dependencies, resolved);
+            return resolved;
+        }
+
+        private boolean requiresTaskInAnotherBuild(Throwable failure) {
+            for (Throwable current = failure; current != null; current = current.getCause()) {
+                if (current instanceof TaskNodeFactory.TaskInAnotherBuildNotAllowedException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void recordFailure(Object key, Exception failure) {
+            prefetchFailures.put(key, failure);
+            failed.set(true);
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Resolve task dependencies for " + project.getDisplayName());
+        }
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan;
+
+import org.gradle.internal.service.scopes.Scopes;
+import org.gradle.internal.service.scopes.ServiceScope;
+
+/**
+ * Durations of previous executions of the nodes of an execution plan, used to start the nodes on the critical path of the plan first.
+ */
+@ServiceScope(Scopes.BuildTree.class)
+public interface TaskDurationHistory {
+    TaskDurationHistory NONE = new TaskDurationHistory() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public long getExpectedDuration(Node node) {
+            return 0;
+        }
+
+        @Override
+        public void executed(Node node, long durationMillis) {
+        }
+    };
+
+    /**
+     * Whether durations are recorded and used to order the nodes that are ready to execute.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns the expected execution duration of the given node in milliseconds, or 0 when it is not known.
+     */
+    long getExpectedDuration(Node node);
+
+    /**
+     * Records that the given node has executed successfully, in the given duration.
+     * Implementations may ignore executions that did not do the work of the node, such as up-to-date tasks.
+     */
+    void executed(Node node, long durationMillis);
+}
@@ -41,7 +41,6 @@
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -50,12 +49,13 @@
 
 @ServiceScope(Scopes.Build.class)
 public class TaskNodeFactory {
-    private final Map<Task, TaskNode> nodes = new HashMap<>();
+    private final Map<Task, TaskNode> nodes = Maps.newConcurrentMap();
     private final BuildTreeWorkGraphController workGraphController;
     private final GradleInternal thisBuild;
     private final DocumentationRegistry documentationRegistry;
     private final DefaultTypeOriginInspectorFactory typeOriginInspectorFactory;
     private final Function<LocalTaskNode, ResolveMutationsNode> resolveMutationsNodeFactory;
+    private final ThreadLocal<Boolean> localNodesOnly = new ThreadLocal<>();
 
     public TaskNodeFactory(
         GradleInternal thisBuild,
@@ -83,15 +83,37 @@ public TaskNode getNode(Task task) {
 
     public TaskNode getOrCreateNode(Task task) {
         TaskNode node = nodes.get(task);
-        if (node == null) {
-            if (((ProjectInternal) task.getProject()).getGradle().getIdentityPath().equals(thisBuild.getIdentityPath())) {
-                node = new LocalTaskNode((TaskInternal) task, new DefaultWorkValidationContext(documentationRegistry, typeOriginInspectorFactory.forTask(task)), resolveMutationsNodeFactory);
-            } else {
-                node = TaskInAnotherBuild.of((TaskInternal) task, workGraphController);
-            }
-            nodes.put(task, node);
+        if (node != null) {
+            return node;
+        }
+        if (isInThisBuild(task)) {
+            return nodes.computeIfAbsent(task, t -> new LocalTaskNode((TaskInternal) t, new DefaultWorkValidationContext(documentationRegistry, typeOriginInspectorFactory.forTask(t)), resolveMutationsNodeFactory));
+        }
+        if (localNodesOnly.get() != null) {
+            throw new TaskInAnotherBuildNotAllowedException(task);
+        }
+        // Locating the task may configure or schedule another build, so do this without holding any lock
+        TaskNode taskInAnotherBuild = TaskInAnotherBuild.of((TaskInternal) task, workGraphController);
+        TaskNode existing = nodes.putIfAbsent(task, taskInAnotherBuild);
+        return existing != null ? existing : taskInAnotherBuild;
+    }
+
+    /**
+     * Runs the given action on a thread other than the one that owns the work graph.
+     * Nodes for tasks in another build can only be created by the owner of the work graph, so the action fails with
+     * {@link TaskInAnotherBuildNotAllowedException} when it needs such a node that does not exist yet.
+     */
+    public void createLocalNodesOnly(Runnable action) {
+        localNodesOnly.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            localNodesOnly.remove();
         }
-        return node;
+    }
+
+    private boolean isInThisBuild(Task task) {
+        return ((ProjectInternal) task.getProject()).getGradle().getIdentityPath().equals(thisBuild.getIdentityPath());
     }
 
     public void resetState() {
@@ -99,6 +121,15 @@ public void resetState() {
         nodes.clear();
     }
 
+    /**
+     * Thrown when a node for a task in another build is required while only nodes for local tasks can be created.
+     */
+    public static class TaskInAnotherBuildNotAllowedException extends RuntimeException {
+        public TaskInAnotherBuildNotAllowedException(Task task) {
+            super("Cannot create node for " + task + " in another build from this thread.");
+        }
+    }
+
     private static class DefaultTypeOriginInspectorFactory {
         private final Map<Project, ProjectScopedTypeOriginInspector> projectToInspector = Maps.newConcurrentMap();
         private final Map<Class<?>, File> clazzToFile = Maps.newConcurrentMap();
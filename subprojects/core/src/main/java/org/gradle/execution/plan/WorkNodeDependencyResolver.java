@@ -43,11 +43,11 @@ public boolean resolve(Task task, final Object node, Action<? super Node> resolv
     }
 
     @Override
-    public void discardAll() {
+    public synchronized void discardAll() {
         nodesForAction.clear();
     }
 
-    private ActionNode actionNodeFor(WorkNodeAction action) {
+    private synchronized ActionNode actionNodeFor(WorkNodeAction action) {
         ActionNode actionNode = nodesForAction.get(action);
         if (actionNode == null) {
             actionNode = new ActionNode(action);
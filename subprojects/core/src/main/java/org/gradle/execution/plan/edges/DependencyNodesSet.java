@@ -30,7 +30,7 @@ public NavigableSet<Node> getDependencySuccessors() {
 
         @Override
         public DependencyNodesSet addDependency(Node toNode) {
-            return new DependencySuccessorsOnlyNodeSet().addDependency(toNode);
+            return new SingleDependencyNodeSet(toNode);
         }
 
         @Override
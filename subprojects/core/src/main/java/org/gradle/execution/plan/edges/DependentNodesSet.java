@@ -31,7 +31,7 @@ public interface DependentNodesSet {
     DependentNodesSet EMPTY = new DependentNodesSet() {
         @Override
         public DependentNodesSet addDependencyPredecessors(Node fromNode) {
-            return new DependencyPredecessorsOnlyNodeSet().addDependencyPredecessors(fromNode);
+            return new SingleDependencyPredecessorNodeSet(fromNode);
         }
 
         @Override
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan.edges;
+
+import com.google.common.collect.ImmutableSortedSet;
+import org.gradle.execution.plan.Node;
+
+import javax.annotation.Nullable;
+import java.util.NavigableSet;
+
+import static org.gradle.execution.plan.NodeSets.sortedSetOf;
+
+/**
+ * Maintains the state for a node that has exactly one dependency, which is the most common case for large graphs such as chains of transform steps.
+ *
+ * <p>Holds the dependency in a field rather than in the sets used by {@link DependencySuccessorsOnlyNodeSet}, which that class is replaced with
+ * when a second dependency or a must-run-after relationship is added.</p>
+ */
+class SingleDependencyNodeSet implements DependencyNodesSet {
+    private final Node dependency;
+    // Created on first query and kept, as the edges of a node are queried many times while the plan is finalized and executed
+    @Nullable
+    private NavigableSet<Node> dependencies;
+    private boolean waiting = true;
+    private boolean nodeCannotStart;
+
+    SingleDependencyNodeSet(Node dependency) {
+        this.dependency = dependency;
+    }
+
+    @Override
+    public NavigableSet<Node> getDependencySuccessors() {
+        if (dependencies == null) {
+            dependencies = sortedSetOf(dependency);
+        }
+        return dependencies;
+    }
+
+    @Override
+    public DependencyNodesSet addDependency(Node toNode) {
+        if (toNode == dependency) {
+            return this;
+        }
+        return new DependencySuccessorsOnlyNodeSet().addDependency(dependency).addDependency(toNode);
+    }
+
+    @Override
+    public NavigableSet<Node> getMustSuccessors() {
+        return ImmutableSortedSet.of();
+    }
+
+    @Override
+    public DependencyNodesSet addMustSuccessor(Node toNode) {
+        return new DependencySuccessorsOnlyNodeSet().addDependency(dependency).addMustSuccessor(toNode);
+    }
+
+    @Override
+    public void onNodeComplete(Node node, Node dependency) {
+        if (waiting && dependency == this.dependency) {
+            dependencyComplete(node);
+        }
+    }
+
+    @Override
+    public Node.DependenciesState getState(Node node) {
+        if (waiting && dependency.isComplete()) {
+            dependencyComplete(node);
+        }
+        if (nodeCannotStart) {
+            return Node.DependenciesState.COMPLETE_AND_NOT_SUCCESSFUL;
+        } else if (waiting) {
+            return Node.DependenciesState.NOT_COMPLETE;
+        } else {
+            return Node.DependenciesState.COMPLETE_AND_SUCCESSFUL;
+        }
+    }
+
+    private void dependencyComplete(Node node) {
+        waiting = false;
+        nodeCannotStart = !node.shouldContinueExecution(dependency);
+    }
+
+    @Override
+    public void healthDiagnostics(StringBuilder builder) {
+        builder.append("dependencies=").append(Node.formatNodes(getDependencySuccessors()));
+        if (waiting) {
+            builder.append(", waiting-for=").append(Node.formatNodes(getDependencySuccessors()));
+        }
+        builder.append(", has-failed-dependency=").append(nodeCannotStart);
+    }
+}
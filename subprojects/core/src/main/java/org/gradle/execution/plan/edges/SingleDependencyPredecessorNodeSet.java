@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan.edges;
+
+import org.gradle.execution.plan.Node;
+
+import javax.annotation.Nullable;
+import java.util.SortedSet;
+import java.util.function.Consumer;
+
+import static org.gradle.execution.plan.NodeSets.sortedSetOf;
+
+/**
+ * A single incoming dependency, no incoming must-run-after or finalizes relationships.
+ */
+class SingleDependencyPredecessorNodeSet implements DependentNodesSet {
+    private final Node dependencyPredecessor;
+    // Created on first query and kept, see SingleDependencyNodeSet
+    @Nullable
+    private SortedSet<Node> dependencyPredecessors;
+
+    SingleDependencyPredecessorNodeSet(Node dependencyPredecessor) {
+        this.dependencyPredecessor = dependencyPredecessor;
+    }
+
+    @Override
+    public SortedSet<Node> getDependencyPredecessors() {
+        if (dependencyPredecessors == null) {
+            dependencyPredecessors = sortedSetOf(dependencyPredecessor);
+        }
+        return dependencyPredecessors;
+    }
+
+    @Override
+    public DependentNodesSet addDependencyPredecessors(Node fromNode) {
+        if (fromNode == dependencyPredecessor) {
+            return this;
+        }
+        return expand().addDependencyPredecessors(fromNode);
+    }
+
+    @Override
+    public DependentNodesSet addFinalizer(Node finalizer) {
+        return expand().addFinalizer(finalizer);
+    }
+
+    @Override
+    public DependentNodesSet addMustPredecessor(Node fromNode) {
+        return expand().addMustPredecessor(fromNode);
+    }
+
+    private DependentNodesSet expand() {
+        return new DependencyPredecessorsOnlyNodeSet().addDependencyPredecessors(dependencyPredecessor);
+    }
+
+    @Override
+    public void visitAllNodes(Consumer<Node> visitor) {
+        visitor.accept(dependencyPredecessor);
+    }
+}
@@ -17,6 +17,7 @@
 package org.gradle.internal.service.scopes;
 
 import org.gradle.execution.plan.DefaultPlanExecutor;
+import org.gradle.execution.plan.DefaultTaskDurationHistory;
 import org.gradle.internal.service.ServiceRegistration;
 
 public class ExecutionServices extends AbstractPluginServiceRegistry {
@@ -28,6 +29,7 @@ public void registerGlobalServices(ServiceRegistration registration) {
     @Override
     public void registerBuildTreeServices(ServiceRegistration registration) {
         registration.add(DefaultPlanExecutor.class);
+        registration.add(DefaultTaskDurationHistory.class);
     }
 
     @Override
@@ -453,6 +453,12 @@ public ProjectEvaluationListener getProjectEvaluationBroadcaster() {
         return projectEvaluationListenerBroadcast.getSource();
     }
 
+    @Override
+    public boolean hasProjectEvaluationListeners() {
+        // The broadcast always forwards to the listeners registered with the listener manager
+        return projectEvaluationListenerBroadcast.size() > 1 || getListenerManager().hasListeners(ProjectEvaluationListener.class);
+    }
+
     @Override
     public void addBuildListener(BuildListener buildListener) {
         addListener("Gradle.addBuildListener", buildListener);
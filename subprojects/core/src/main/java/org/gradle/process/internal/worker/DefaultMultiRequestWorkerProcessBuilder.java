@@ -103,6 +103,11 @@ public <T> void registerArgumentSerializer(Class<T> type, Serializer<T> serializ
         argumentSerializers.register(type, serializer);
     }
 
+    @Override
+    public <T> void registerResultSerializer(Class<T> type, Serializer<T> serializer) {
+        argumentSerializers.registerResult(type, serializer);
+    }
+
     @Override
     public WorkerProcessSettings setBaseName(String baseName) {
         workerProcessBuilder.setBaseName(baseName);
@@ -159,6 +164,7 @@ public WorkerProcess start() {
                 workerProcess.getConnection().addIncoming(ResponseProtocol.class, receiver);
                 workerProcess.getConnection().useJavaSerializationForParameters(workerImplementation.getClassLoader());
                 workerProcess.getConnection().useParameterSerializers(RequestSerializerRegistry.create(workerImplementation.getClassLoader(), argumentSerializers));
+                workerProcess.getConnection().useParameterSerializers(RequestSerializerRegistry.createResultRegistry(workerImplementation.getClassLoader(), argumentSerializers));
 
                 requestProtocol = workerProcess.getConnection().addOutgoing(RequestProtocol.class);
                 workerProcess.getConnection().connect();
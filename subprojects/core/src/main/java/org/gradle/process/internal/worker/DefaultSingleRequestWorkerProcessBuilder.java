@@ -128,6 +128,7 @@ public OUT run(IN request) {
                     connection.addIncoming(ResponseProtocol.class, receiver);
                     connection.useJavaSerializationForParameters(workerImplementation.getClassLoader());
                     connection.useParameterSerializers(RequestSerializerRegistry.create(workerImplementation.getClassLoader(), argumentSerializers));
+                    connection.useParameterSerializers(RequestSerializerRegistry.createResultRegistry(workerImplementation.getClassLoader(), argumentSerializers));
                     connection.connect();
                     // TODO(ew): inject BuildOperationIdentifierRegistry instead of static use
                     requestProtocol.runThenStop(new Request(request, CurrentBuildOperationRef.instance().get()));
@@ -47,6 +47,11 @@
      */
     <T> void registerArgumentSerializer(Class<T> type, Serializer<T> serializer);
 
+    /**
+     * Registers a serializer to use when handling results of type {@link T}. Results of other types are sent using Java serialization.
+     */
+    <T> void registerResultSerializer(Class<T> type, Serializer<T> serializer);
+
     /**
      * Use a simpler classloader structure where everything is in the application classloader.
      */
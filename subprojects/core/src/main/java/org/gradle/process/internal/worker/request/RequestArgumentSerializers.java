@@ -25,6 +25,7 @@
 
 public class RequestArgumentSerializers {
     private final SerializerRegistry registry = new DefaultSerializerRegistry();
+    private final SerializerRegistry resultRegistry = new DefaultSerializerRegistry(false);
 
     public Serializer<Object> getSerializer(ClassLoader defaultClassLoader) {
         registry.register(Object.class, new JavaObjectSerializer(defaultClassLoader));
@@ -35,6 +36,21 @@ public <T> void register(Class<T> type, Serializer<T> serializer) {
         registry.register(type, serializer);
     }
 
+    /**
+     * Returns a serializer for request results. Results whose type has a registered serializer are written using that serializer, all other results
+     * are written using Java serialization.
+     */
+    public Serializer<Object> getResultSerializer(ClassLoader defaultClassLoader) {
+        return new ResultSerializer(resultRegistry, new JavaObjectSerializer(defaultClassLoader));
+    }
+
+    /**
+     * Registers a serializer for results of exactly the given type.
+     */
+    public <T> void registerResult(Class<T> type, Serializer<T> serializer) {
+        resultRegistry.register(type, serializer);
+    }
+
     public static class JavaObjectSerializer implements Serializer<Object> {
         private final ClassLoader classLoader;
 
@@ -52,4 +68,42 @@ public void write(Encoder encoder, Object value) throws Exception {
             Message.send(value, encoder.getOutputStream());
         }
     }
+
+    private static class ResultSerializer implements Serializer<Object> {
+        private final SerializerRegistry registry;
+        private final Serializer<Object> javaSerializer;
+        private Serializer<Object> registeredSerializer;
+
+        ResultSerializer(SerializerRegistry registry, Serializer<Object> javaSerializer) {
+            this.registry = registry;
+            this.javaSerializer = javaSerializer;
+        }
+
+        @Override
+        public Object read(Decoder decoder) throws Exception {
+            if (decoder.readBoolean()) {
+                return getRegisteredSerializer().read(decoder);
+            }
+            return javaSerializer.read(decoder);
+        }
+
+        @Override
+        public void write(Encoder encoder, Object value) throws Exception {
+            if (value != null && registry.canSerialize(value.getClass())) {
+                encoder.writeBoolean(true);
+                getRegisteredSerializer().write(encoder, value);
+            } else {
+                encoder.writeBoolean(false);
+                javaSerializer.write(encoder, value);
+            }
+        }
+
+        private Serializer<Object> getRegisteredSerializer() {
+            // Build lazily, as the registry cannot build a serializer when nothing is registered
+            if (registeredSerializer == null) {
+                registeredSerializer = registry.build(Object.class);
+            }
+            return registeredSerializer;
+        }
+    }
 }
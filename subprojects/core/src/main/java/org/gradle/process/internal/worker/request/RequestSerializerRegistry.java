@@ -27,6 +27,15 @@ public static SerializerRegistry create(ClassLoader classLoader, RequestArgument
         return registry;
     }
 
+    /**
+     * Creates the serializers for the result passed to {@link ResponseProtocol#completed(Object)}.
+     */
+    public static SerializerRegistry createResultRegistry(ClassLoader classLoader, RequestArgumentSerializers argumentSerializers) {
+        SerializerRegistry registry = new DefaultSerializerRegistry(false);
+        registry.register(Object.class, argumentSerializers.getResultSerializer(classLoader));
+        return registry;
+    }
+
     public static SerializerRegistry createDiscardRequestArg() {
         SerializerRegistry registry = new DefaultSerializerRegistry(false);
         registry.register(Request.class, new RequestSerializer(new DefaultSerializer<>(), true));
@@ -80,6 +80,7 @@ public void execute(WorkerProcessContext workerProcessContext) {
         workerLogEventListener = workerProcessContext.getServiceRegistry().get(WorkerLogEventListener.class);
         if (failure == null) {
             connection.useParameterSerializers(RequestSerializerRegistry.create(this.getClass().getClassLoader(), argumentSerializers));
+            connection.useParameterSerializers(RequestSerializerRegistry.createResultRegistry(this.getClass().getClassLoader(), argumentSerializers));
         } else {
             // Discard incoming requests, as the serializers may not have been configured
             connection.useParameterSerializers(RequestSerializerRegistry.createDiscardRequestArg());
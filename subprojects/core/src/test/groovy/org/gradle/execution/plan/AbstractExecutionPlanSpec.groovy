@@ -41,6 +41,8 @@ import org.gradle.util.TestUtil
 import org.junit.Rule
 import spock.lang.Specification
 
+import java.util.function.Consumer
+
 abstract class AbstractExecutionPlanSpec extends Specification {
     @Rule
     final TestNameTestDirectoryProvider temporaryFolder = TestNameTestDirectoryProvider.newInstance(getClass())
@@ -71,6 +73,7 @@ abstract class AbstractExecutionPlanSpec extends Specification {
         _ * project.identityPath(_) >> { taskName -> (parent == null ? Path.ROOT : Path.ROOT.child(name)).child(taskName) }
         _ * project.gradle >> thisBuild
         _ * project.owner >> projectState
+        _ * projectState.applyToMutableState(_) >> { Consumer<ProjectInternal> action -> action.accept(project) }
         _ * project.services >> backing.services
         _ * project.tasks >> Stub(TaskContainerInternal)
 
@@ -57,7 +57,7 @@ class DefaultExecutionPlanParallelTest extends AbstractExecutionPlanSpec {
 
     def setup() {
         def dependencyResolver = new TaskDependencyResolver([new TaskNodeDependencyResolver(taskNodeFactory)])
-        executionPlan = new DefaultExecutionPlan(Path.ROOT.toString(), taskNodeFactory, new OrdinalGroupFactory(), dependencyResolver, accessHierarchies.outputHierarchy, accessHierarchies.destroyableHierarchy, coordinator)
+        executionPlan = new DefaultExecutionPlan(Path.ROOT.toString(), taskNodeFactory, new OrdinalGroupFactory(), dependencyResolver, accessHierarchies.outputHierarchy, accessHierarchies.destroyableHierarchy, coordinator, TaskDurationHistory.NONE)
     }
 
     Node priorityNode(Map<String, ?> options = [:]) {
@@ -974,6 +974,39 @@ class DefaultExecutionPlanParallelTest extends AbstractExecutionPlanSpec {
         !taskNode3.task.project.is(taskNode4.task.project)
     }
 
+    def "starts the ready task with the longest remaining path first when scheduling by critical path"() {
+        given:
+        def durations = [a: 10L, b: 0L, c: 100L, d: 1000L]
+        def durationHistory = Mock(TaskDurationHistory) {
+            _ * isEnabled() >> true
+            _ * getExpectedDuration(_) >> { Node node -> node instanceof LocalTaskNode ? durations[node.task.name] : 0L }
+        }
+        def dependencyResolver = new TaskDependencyResolver([new TaskNodeDependencyResolver(taskNodeFactory)])
+        executionPlan = new DefaultExecutionPlan(Path.ROOT.toString(), taskNodeFactory, new OrdinalGroupFactory(), dependencyResolver, accessHierarchies.outputHierarchy, accessHierarchies.destroyableHierarchy, coordinator, durationHistory)
+
+        def a = task("a", type: Async)
+        def b = task("b", type: Async)
+        def c = task("c", type: Async)
+        def d = task("d", type: Async, dependsOn: [a])
+
+        when:
+        addToGraphAndPopulate(b, c, d)
+        def first = selectNextTaskNode()
+        def second = selectNextTaskNode()
+        def third = selectNextTaskNode()
+
+        then:
+        first.task == a
+        second.task == c
+        third.task == b
+
+        when:
+        finishedExecuting(first)
+
+        then:
+        1 * durationHistory.executed(first, _)
+    }
+
     def "a non-async task can start while an async task from the same project is waiting for work to complete"() {
         given:
         def bar = task("bar", type: Async)
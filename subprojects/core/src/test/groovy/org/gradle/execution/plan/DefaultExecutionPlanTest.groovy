@@ -22,12 +22,17 @@ import org.gradle.api.CircularReferenceException
 import org.gradle.api.Task
 import org.gradle.api.internal.DocumentationRegistry
 import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.tasks.TaskDependencyContainerInternal
+import org.gradle.api.internal.tasks.TaskDependencyResolveException
 import org.gradle.api.internal.tasks.WorkNodeAction
 import org.gradle.api.specs.Spec
 import org.gradle.api.tasks.TaskDependency
 import org.gradle.composite.internal.BuildTreeWorkGraphController
+import org.gradle.internal.buildoption.DefaultInternalOptions
 import org.gradle.internal.file.Stat
+import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resources.ProjectLeaseRegistry
 import org.gradle.util.Path
 import org.gradle.util.internal.TextUtil
 import spock.lang.Issue
@@ -52,7 +57,7 @@ class DefaultExecutionPlanTest extends AbstractExecutionPlanSpec {
 
     private DefaultExecutionPlan newExecutionPlan() {
         executionPlan?.close()
-        new DefaultExecutionPlan(Path.ROOT.toString(), taskNodeFactory, new OrdinalGroupFactory(), dependencyResolver, accessHierarchies.outputHierarchy, accessHierarchies.destroyableHierarchy, coordinator)
+        new DefaultExecutionPlan(Path.ROOT.toString(), taskNodeFactory, new OrdinalGroupFactory(), dependencyResolver, accessHierarchies.outputHierarchy, accessHierarchies.destroyableHierarchy, coordinator, TaskDurationHistory.NONE)
     }
 
     def "schedules tasks in dependency order"() {
@@ -158,6 +163,61 @@ class DefaultExecutionPlanTest extends AbstractExecutionPlanSpec {
         executes(a, b, c, d)
     }
 
+    def "resolves task dependencies ahead of time one project at a time when parallel resolution is enabled"() {
+        def buildOperationExecutor = new TestBuildOperationExecutor()
+        usingParallelDependencyResolution(buildOperationExecutor)
+
+        def other = project(project, "other")
+        Task a = task("a")
+        Task b = createTask("b", other)
+        relationships(b, dependsOn: [a])
+        Task c = createTask("c", other)
+        relationships(c, dependsOn: [b])
+        Task d = task("d", dependsOn: [c, b])
+
+        when:
+        addToGraphAndPopulate(toList(d))
+
+        then:
+        executes(a, b, c, d)
+        buildOperationExecutor.operations.size() == 3
+        buildOperationExecutor.operations.every { it.displayName.startsWith("Resolve task dependencies for ") }
+    }
+
+    def "rethrows failure to resolve task dependencies ahead of time without resolving them again"() {
+        def buildOperationExecutor = new TestBuildOperationExecutor()
+        usingParallelDependencyResolution(buildOperationExecutor)
+
+        def other = project(project, "other")
+        def failure = new RuntimeException("broken")
+        def brokenDependencies = Mock(TaskDependencyContainerInternal)
+        Task a = createTask("a", other)
+        a.getTaskDependencies() >> brokenDependencies
+        a.getLifecycleDependencies() >> taskDependencyResolvingTo(a, [])
+        finalizedBy(a, [])
+        mustRunAfter(a, [])
+        shouldRunAfter(a, [])
+        Task b = task("b", dependsOn: [a])
+
+        when:
+        addToGraphAndPopulate(toList(b))
+
+        then:
+        def e = thrown(TaskDependencyResolveException)
+        e.cause.is(failure)
+        1 * brokenDependencies.visitDependencies(_) >> { throw failure }
+    }
+
+    private void usingParallelDependencyResolution(BuildOperationExecutor buildOperationExecutor) {
+        def projectLeaseRegistry = Stub(ProjectLeaseRegistry) {
+            getAllowsParallelExecution() >> true
+            runAsIsolatedTask(_ as Runnable) >> { Runnable action -> action.run() }
+        }
+        def internalOptions = new DefaultInternalOptions([(TaskDependencyResolver.PARALLEL_RESOLUTION.systemPropertyName): "true"])
+        dependencyResolver = new TaskDependencyResolver([new TaskNodeDependencyResolver(taskNodeFactory)], buildOperationExecutor, projectLeaseRegistry, taskNodeFactory, internalOptions)
+        executionPlan = newExecutionPlan()
+    }
+
     def "#orderingRule ordering is honoured for tasks added separately to graph"() {
         Task a = task("a")
         Task b = task("b", dependsOn: [a])
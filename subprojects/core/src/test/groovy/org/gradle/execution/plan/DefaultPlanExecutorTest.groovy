@@ -77,6 +77,44 @@ class DefaultPlanExecutorTest extends Specification {
         0 * workSource._
     }
 
+    def "selects next item when previous item finishes"() {
+        def node1 = Mock(LocalTaskNode)
+        def node2 = Mock(LocalTaskNode)
+
+        when:
+        def result = executor.process(workSource, worker)
+
+        then:
+        result.failures.empty
+        1 * workerLeaseService.currentWorkerLease >> workerLease
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workerLease.tryLock() >> true
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workSource.selectNext() >> WorkSource.Selection.of(node1)
+        1 * worker.execute(node1)
+        1 * workSource.finishedExecuting(node1, null)
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workSource.executionState() >> WorkSource.State.MaybeWorkReadyToStart
+        1 * workerLease.isLockedByCurrentThread() >> true
+        1 * workSource.selectNext() >> WorkSource.Selection.of(node2)
+        1 * worker.execute(node2)
+        1 * workSource.finishedExecuting(node2, null)
+
+        then:
+        1 * cancellationHandler.isCancellationRequested() >> false
+        1 * workSource.executionState() >> WorkSource.State.NoMoreWorkToStart
+
+        then:
+        1 * workerLease.tryLock() >> true
+        3 * workSource.allExecutionComplete() >> true
+        1 * workSource.collectFailures([])
+        0 * workSource._
+    }
+
     def "execution is canceled when cancellation requested"() {
         def gradle = Mock(Gradle)
         def project = Mock(Project)
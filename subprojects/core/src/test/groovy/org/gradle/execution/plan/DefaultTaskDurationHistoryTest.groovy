@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.plan
+
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.tasks.TaskExecutionOutcome
+import org.gradle.api.internal.tasks.TaskStateInternal
+import org.gradle.cache.scopes.BuildTreeScopedCacheBuilderFactory
+import org.gradle.internal.buildoption.DefaultInternalOptions
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Path
+import org.junit.Rule
+import spock.lang.Specification
+
+class DefaultTaskDurationHistoryTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
+
+    def cacheBuilderFactory = Stub(BuildTreeScopedCacheBuilderFactory) {
+        baseDirForCache(_) >> { String key -> temporaryFolder.file(key) }
+    }
+    def enabled = new DefaultInternalOptions([(DefaultTaskDurationHistory.CRITICAL_PATH_SCHEDULING.systemPropertyName): "true"])
+
+    def "durations are not known until recorded"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+
+        expect:
+        history.enabled
+        history.getExpectedDuration(taskNode(":a")) == 0
+
+        when:
+        history.executed(taskNode(":a"), 100)
+
+        then:
+        history.getExpectedDuration(taskNode(":a")) == 100
+        history.getExpectedDuration(taskNode(":b")) == 0
+    }
+
+    def "expected duration is smoothed over executions"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+
+        when:
+        history.executed(taskNode(":a"), 100)
+        history.executed(taskNode(":a"), 300)
+
+        then:
+        history.getExpectedDuration(taskNode(":a")) == 200
+    }
+
+    def "expected duration is unchanged by #outcome executions"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+
+        when:
+        history.executed(taskNode(":a"), 100)
+        history.executed(taskNode(":a", outcome), 2)
+
+        then:
+        history.getExpectedDuration(taskNode(":a")) == 100
+
+        where:
+        outcome << [TaskExecutionOutcome.UP_TO_DATE, TaskExecutionOutcome.FROM_CACHE, TaskExecutionOutcome.SKIPPED, TaskExecutionOutcome.NO_SOURCE]
+    }
+
+    def "durations are not recorded for tasks that did not execute their actions"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+
+        when:
+        history.executed(taskNode(":a", TaskExecutionOutcome.UP_TO_DATE), 2)
+        history.stop()
+
+        then:
+        history.getExpectedDuration(taskNode(":a")) == 0
+        !temporaryFolder.file("task-durations").exists()
+    }
+
+    def "durations are kept across build trees"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+        history.executed(taskNode(":a"), 100)
+        history.executed(taskNode(":b:c"), 2000)
+
+        when:
+        history.stop()
+        def nextHistory = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+
+        then:
+        nextHistory.getExpectedDuration(taskNode(":a")) == 100
+        nextHistory.getExpectedDuration(taskNode(":b:c")) == 2000
+    }
+
+    def "ignores nodes other than tasks"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, enabled)
+        def node = Stub(Node)
+
+        when:
+        history.executed(node, 100)
+        history.stop()
+
+        then:
+        history.getExpectedDuration(node) == 0
+        !temporaryFolder.file("task-durations").exists()
+    }
+
+    def "does nothing when not enabled"() {
+        def history = new DefaultTaskDurationHistory(cacheBuilderFactory, new DefaultInternalOptions([:]))
+
+        when:
+        history.executed(taskNode(":a"), 100)
+        history.stop()
+
+        then:
+        !history.enabled
+        history.getExpectedDuration(taskNode(":a")) == 0
+        !temporaryFolder.file("task-durations").exists()
+    }
+
+    LocalTaskNode taskNode(String path, TaskExecutionOutcome outcome = TaskExecutionOutcome.EXECUTED) {
+        def state = new TaskStateInternal()
+        state.setOutcome(outcome)
+        def task = Stub(TaskInternal) {
+            getIdentityPath() >> Path.path(path)
+            getState() >> state
+        }
+        return Stub(LocalTaskNode) {
+            getTask() >> task
+        }
+    }
+}
@@ -22,12 +22,15 @@ import org.gradle.api.internal.TaskInternal
 import org.gradle.api.internal.plugins.PluginManagerInternal
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.composite.internal.BuildTreeWorkGraphController
+import org.gradle.composite.internal.IncludedBuildTaskResource
 import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.util.Path
 import spock.lang.Specification
 
 class TaskNodeFactoryTest extends Specification {
     def gradle = Stub(GradleInternal)
     def project = Stub(ProjectInternal)
+    def workGraphController = Mock(BuildTreeWorkGraphController)
     TaskNodeFactory factory
     def a = task('a')
     def b = task('b')
@@ -36,13 +39,14 @@ class TaskNodeFactoryTest extends Specification {
     def e = task('e')
 
     def setup() {
+        gradle.identityPath >> Path.ROOT
         project.gradle >> gradle
         project.pluginManager >> Stub(PluginManagerInternal)
 
-        factory = new TaskNodeFactory(gradle, Stub(DocumentationRegistry), Stub(BuildTreeWorkGraphController), Stub(NodeValidator), new TestBuildOperationExecutor(), Stub(ExecutionNodeAccessHierarchies))
+        factory = new TaskNodeFactory(gradle, Stub(DocumentationRegistry), workGraphController, Stub(NodeValidator), new TestBuildOperationExecutor(), Stub(ExecutionNodeAccessHierarchies))
     }
 
-    private TaskInternal task(String name) {
+    private TaskInternal task(String name, ProjectInternal project = this.project) {
         Mock(TaskInternal) {
             getName() >> name
             compareTo(_) >> { args -> name.compareTo(args[0].name) }
@@ -50,6 +54,19 @@ class TaskNodeFactoryTest extends Specification {
         }
     }
 
+    private TaskInternal taskInAnotherBuild(String name) {
+        def otherBuild = Stub(GradleInternal) {
+            getIdentityPath() >> Path.path(":other")
+        }
+        def otherProject = Stub(ProjectInternal) {
+            getGradle() >> otherBuild
+        }
+        def task = task(name, otherProject)
+        task.identityPath >> Path.path(":other:${name}")
+        task.path >> ":${name}"
+        return task
+    }
+
     void 'can create a node for a task'() {
         when:
         def node = factory.getOrCreateNode(a)
@@ -91,4 +108,40 @@ class TaskNodeFactoryTest extends Specification {
         then:
         !factory.tasks
     }
+
+    void 'locates task in another build once'() {
+        def other = taskInAnotherBuild('other')
+
+        when:
+        def node = factory.getOrCreateNode(other)
+
+        then:
+        node instanceof TaskInAnotherBuild
+        factory.getOrCreateNode(other).is(node)
+        1 * workGraphController.locateTask(_) >> Stub(IncludedBuildTaskResource)
+    }
+
+    void 'only creates nodes for local tasks when restricted to local nodes'() {
+        def other = taskInAnotherBuild('other')
+        def local = null
+
+        when:
+        factory.createLocalNodesOnly {
+            local = factory.getOrCreateNode(a)
+            factory.getOrCreateNode(other)
+        }
+
+        then:
+        thrown(TaskNodeFactory.TaskInAnotherBuildNotAllowedException)
+        local instanceof LocalTaskNode
+        factory.tasks == [a] as Set
+        0 * workGraphController._
+
+        when:
+        def node = factory.getOrCreateNode(other)
+
+        then:
+        node instanceof TaskInAnotherBuild
+        1 * workGraphController.locateTask(_) >> Stub(IncludedBuildTaskResource)
+    }
 }
@@ -100,4 +100,63 @@ class NodeDependencySetTest extends Specification {
         then:
         set.getState(node) == Node.DependenciesState.COMPLETE_AND_NOT_SUCCESSFUL
     }
+
+    def "waits until single dependency has completed"() {
+        def dep = Stub(Node)
+
+        given:
+        _ * node.shouldContinueExecution(dep) >> succeeded
+
+        when:
+        def single = DependencyNodesSet.EMPTY.addDependency(dep)
+
+        then:
+        single instanceof SingleDependencyNodeSet
+        single.dependencySuccessors as List == [dep]
+        single.dependencySuccessors.is(single.dependencySuccessors)
+        single.getState(node) == Node.DependenciesState.NOT_COMPLETE
+
+        when:
+        single.onNodeComplete(node, Stub(Node))
+
+        then:
+        single.getState(node) == Node.DependenciesState.NOT_COMPLETE
+
+        when:
+        single.onNodeComplete(node, dep)
+
+        then:
+        single.getState(node) == state
+
+        where:
+        succeeded | state
+        true      | Node.DependenciesState.COMPLETE_AND_SUCCESSFUL
+        false     | Node.DependenciesState.COMPLETE_AND_NOT_SUCCESSFUL
+    }
+
+    def "single dependency set keeps its state when more dependencies are added"() {
+        def dep1 = Stub(Node) {
+            isComplete() >> true
+        }
+        def dep2 = Stub(Node)
+
+        given:
+        _ * node.shouldContinueExecution(_) >> true
+
+        when:
+        def single = DependencyNodesSet.EMPTY.addDependency(dep1)
+        single.onNodeComplete(node, dep1)
+        def expanded = single.addDependency(dep1).addDependency(dep2)
+
+        then:
+        expanded instanceof DependencySuccessorsOnlyNodeSet
+        expanded.dependencySuccessors.size() == 2
+        expanded.getState(node) == Node.DependenciesState.NOT_COMPLETE
+
+        when:
+        expanded.onNodeComplete(node, dep2)
+
+        then:
+        expanded.getState(node) == Node.DependenciesState.COMPLETE_AND_SUCCESSFUL
+    }
 }
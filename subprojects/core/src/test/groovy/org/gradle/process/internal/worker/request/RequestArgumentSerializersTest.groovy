@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.process.internal.worker.request
+
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.internal.serialize.SerializerSpec
+
+class RequestArgumentSerializersTest extends SerializerSpec {
+    def serializers = new RequestArgumentSerializers()
+
+    def "uses registered serializer for results of registered type"() {
+        given:
+        serializers.registerResult(String, BaseSerializerFactory.STRING_SERIALIZER)
+        def serializer = serializers.getResultSerializer(getClass().classLoader)
+
+        expect:
+        usesEfficientSerialization("result", serializer) == "result"
+    }
+
+    def "uses Java serialization for results of other types"() {
+        given:
+        serializers.registerResult(String, BaseSerializerFactory.STRING_SERIALIZER)
+        def serializer = serializers.getResultSerializer(getClass().classLoader)
+
+        expect:
+        serialize(value, serializer) == value
+
+        where:
+        value << [null, 12L, ["a", "b"]]
+    }
+
+    def "uses Java serialization when no result serializers are registered"() {
+        def serializer = serializers.getResultSerializer(getClass().classLoader)
+
+        expect:
+        serialize("result", serializer) == "result"
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.DefaultParallelismConfiguration;
+import org.gradle.internal.operations.BuildOperationConstraint;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationListener;
+import org.gradle.internal.operations.DefaultBuildOperationExecutor;
+import org.gradle.internal.operations.DefaultBuildOperationIdFactory;
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory;
+import org.gradle.internal.operations.OperationFinishEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationProgressEvent;
+import org.gradle.internal.operations.OperationStartEvent;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.progress.NoOpProgressLoggerFactory;
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.work.DefaultWorkerLeaseService;
+import org.gradle.internal.work.WorkerLeaseRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the metadata of a synthetic graph of 3000 components the way {@link DependencyGraphBuilder} does, where every node targets {@code fanOut} components
+ * whose metadata requires a download, and compares running a build operation per component with running the batches of {@link DependencyGraphBuilder#batchesOf(List)}.
+ *
+ * <p>Resolving the metadata of a component is modelled by {@code resolveTokens} of CPU work, which is about the cost of processing metadata already cached on disk.
+ * The fan-out from which batching is faster than a build operation per component should match {@link DependencyGraphBuilder#MIN_COMPONENTS_TO_BATCH}.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DownloadMetadataBatchingBenchmark {
+    private static final int MAX_WORKERS = 4;
+
+    @Param({"3000"})
+    int components;
+
+    @Param({"2", "4", "8", "16", "64"})
+    int fanOut;
+
+    @Param({"2000"})
+    long resolveTokens;
+
+    @Param({"true", "false"})
+    boolean batched;
+
+    private DefaultWorkerLeaseService workerLeaseService;
+    private WorkerLeaseRegistry.WorkerLeaseCompletion workerLease;
+    private BuildOperationExecutor buildOperationExecutor;
+    private final List<List<Integer>> nodeTargets = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void createGraph() {
+        DefaultParallelismConfiguration parallelismConfiguration = new DefaultParallelismConfiguration(true, MAX_WORKERS);
+        workerLeaseService = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), parallelismConfiguration);
+        workerLeaseService.startProjectExecution(true);
+        buildOperationExecutor = new DefaultBuildOperationExecutor(
+            new NoOpBuildOperationListener(), Time.clock(), new NoOpProgressLoggerFactory(),
+            new DefaultBuildOperationQueueFactory(workerLeaseService), new DefaultExecutorFactory(), parallelismConfiguration, new DefaultBuildOperationIdFactory()
+        );
+        workerLease = workerLeaseService.startWorker();
+
+        for (int first = 0; first < components; first += fanOut) {
+            List<Integer> targets = new ArrayList<>(fanOut);
+            for (int component = first; component < Math.min(first + fanOut, components); component++) {
+                targets.add(component);
+            }
+            nodeTargets.add(targets);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        workerLease.leaseFinish();
+        workerLeaseService.stop();
+    }
+
+    @Benchmark
+    public void resolveGraph() {
+        for (List<Integer> targets : nodeTargets) {
+            List<List<Integer>> operations = batched ? DependencyGraphBuilder.batchesOf(targets) : perComponent(targets);
+            buildOperationExecutor.runAll(queue -> {
+                for (List<Integer> operation : operations) {
+                    queue.add(new ResolveOperation(operation, resolveTokens));
+                }
+            }, BuildOperationConstraint.UNCONSTRAINED);
+        }
+    }
+
+    private static List<List<Integer>> perComponent(List<Integer> targets) {
+        List<List<Integer>> operations = new ArrayList<>(targets.size());
+        for (Integer target : targets) {
+            operations.add(ImmutableList.of(target));
+        }
+        return operations;
+    }
+
+    private static class ResolveOperation implements RunnableBuildOperation {
+        private final List<Integer> components;
+        private final long resolveTokens;
+
+        ResolveOperation(List<Integer> components, long resolveTokens) {
+            this.components = components;
+            this.resolveTokens = resolveTokens;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            for (int i = 0; i < components.size(); i++) {
+                Blackhole.consumeCPU(resolveTokens);
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Resolve " + components);
+        }
+    }
+
+    private static class NoOpBuildOperationListener implements BuildOperationListener {
+        @Override
+        public void started(BuildOperationDescriptor buildOperation, OperationStartEvent startEvent) {
+        }
+
+        @Override
+        public void progress(OperationIdentifier operationIdentifier, OperationProgressEvent progressEvent) {
+        }
+
+        @Override
+        public void finished(BuildOperationDescriptor buildOperation, OperationFinishEvent finishEvent) {
+        }
+    }
+}
@@ -133,6 +133,8 @@ private void verifyConcurrently() {
             LOGGER.debug("Cannot perform verification of all dependencies because the verification service has been shutdown. Under normal circumstances this shouldn't happen unless a user buildFinished was added in an unexpected way.");
             return;
         }
+        // Each artifact is verified in its own operation, so that checksums and signatures of different artifacts are checked in parallel.
+        // Results are reused across builds: checksums are cached by the checksum service and signature results by the signature verification service.
         buildOperationExecutor.runAll(queue -> {
             VerificationEvent event;
             synchronized (verificationEvents) {
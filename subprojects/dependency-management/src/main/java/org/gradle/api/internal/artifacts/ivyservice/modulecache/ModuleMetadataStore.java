@@ -25,8 +25,8 @@
 import org.gradle.internal.component.external.model.MutableModuleComponentResolveMetadata;
 import org.gradle.internal.resource.local.LocallyAvailableResource;
 import org.gradle.internal.resource.local.PathKeyFileStore;
-import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
-import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.gradle.internal.serialize.kryo.StringDeduplicatingKryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.StringDeduplicatingKryoBackedEncoder;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -54,7 +54,7 @@ public MutableModuleComponentResolveMetadata getModuleDescriptor(ModuleComponent
         LocallyAvailableResource resource = metaDataStore.get(filePath);
         if (resource != null) {
             try {
-                try (StringDeduplicatingDecoder decoder = new StringDeduplicatingDecoder(new KryoBackedDecoder(new FileInputStream(resource.getFile())), stringInterner)) {
+                try (StringDeduplicatingDecoder decoder = new StringDeduplicatingDecoder(new StringDeduplicatingKryoBackedDecoder(new FileInputStream(resource.getFile())), stringInterner)) {
                     return moduleMetadataSerializer.read(decoder, moduleIdentifierFactory, Maps.newHashMap());
                 }
             } catch (Exception e) {
@@ -68,7 +68,7 @@ public LocallyAvailableResource putModuleDescriptor(ModuleComponentAtRepositoryK
         String[] filePath = getFilePath(component);
         return metaDataStore.add(PATH_JOINER.join(filePath), moduleDescriptorFile -> {
             try {
-                try (KryoBackedEncoder encoder = new KryoBackedEncoder(new FileOutputStream(moduleDescriptorFile))) {
+                try (StringDeduplicatingKryoBackedEncoder encoder = new StringDeduplicatingKryoBackedEncoder(new FileOutputStream(moduleDescriptorFile))) {
                     moduleMetadataSerializer.write(encoder, metadata, Maps.newHashMap());
                 }
             } catch (Exception e) {
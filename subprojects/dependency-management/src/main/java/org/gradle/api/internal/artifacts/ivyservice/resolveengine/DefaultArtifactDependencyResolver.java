@@ -153,7 +153,10 @@ public void resolve(ResolveContext resolveContext, List<? extends ResolutionAwar
 
         DependencyGraphVisitor artifactsGraphVisitor = new ResolvedArtifactsGraphVisitor(artifactsVisitor, resolvers.getArtifactSelector());
 
-        // Resolve the dependency graph
+        // Resolve the dependency graph.
+        // The graph is always built from scratch: the outcome for any subgraph depends on conflict resolution, substitution rules, strict versions,
+        // capabilities and excludes across the whole graph, so it cannot be reused by another configuration, even one sharing the same dependencies.
+        // What can be shared between configurations is cached at the build or build tree level instead, such as module metadata, exclude specs and resolved variants.
         builder.resolve(resolveContext, new CompositeDependencyGraphVisitor(graphVisitor, artifactsGraphVisitor), includeSyntheticDependencies);
     }
 
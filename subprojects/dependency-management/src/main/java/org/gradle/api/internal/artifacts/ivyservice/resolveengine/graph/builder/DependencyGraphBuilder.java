@@ -94,6 +94,17 @@ public class DependencyGraphBuilder {
     private final VersionParser versionParser;
     private final ResolutionConflictTracker conflictTracker;
 
+    /**
+     * The number of components requiring a metadata download a node must target before they are resolved in batches, rather than in one build operation each.
+     * See {@code DownloadMetadataBatchingBenchmark}.
+     */
+    static final int MIN_COMPONENTS_TO_BATCH = 8;
+
+    /**
+     * The number of components resolved by each build operation, once they are resolved in batches.
+     */
+    static final int COMPONENTS_PER_BATCH = 4;
+
     final static Spec<EdgeState> ENDORSE_STRICT_VERSIONS_DEPENDENCY_SPEC = dependencyState -> dependencyState.getDependencyState().getDependency().isEndorsingStrictVersions();
     final static Spec<EdgeState> NOT_ENDORSE_STRICT_VERSIONS_DEPENDENCY_SPEC = dependencyState -> !dependencyState.getDependencyState().getDependency().isEndorsingStrictVersions();
 
@@ -309,34 +320,66 @@ private void checkForModuleConflicts(ResolveState resolveState, ModuleResolveSta
      * It uses a simple heuristic to determine if we should perform concurrent resolution, based on the number of edges, and whether they have unresolved metadata.
      */
     private void maybeDownloadMetadataInParallel(NodeState node, List<EdgeState> dependencies, Spec<EdgeState> dependencyFilter) {
-        List<ComponentState> requiringDownload = null;
+        Set<ComponentState> unresolved = null;
         for (EdgeState dependency : dependencies) {
             if (!dependencyFilter.isSatisfiedBy(dependency)) {
                 continue;
             }
             ComponentState targetComponent = dependency.getTargetComponent();
             if (targetComponent != null && targetComponent.isSelected() && !targetComponent.alreadyResolved()) {
-                if (!metaDataResolver.isFetchingMetadataCheap(targetComponent.getComponentId())) {
-                    // Avoid initializing the list if there are no components requiring download (a common case)
-                    if (requiringDownload == null) {
-                        requiringDownload = Lists.newArrayList();
-                    }
-                    requiringDownload.add(targetComponent);
+                // Avoid initializing the set if there are no unresolved components (a common case)
+                if (unresolved == null) {
+                    unresolved = Sets.newLinkedHashSet();
                 }
+                unresolved.add(targetComponent);
             }
         }
+        if (unresolved == null) {
+            return;
+        }
+        List<ComponentState> requiringDownload = componentsRequiringDownload(unresolved);
         // Only download in parallel if there is more than 1 component to download
-        if (requiringDownload != null && requiringDownload.size() > 1) {
-            final ImmutableList<ComponentState> toDownloadInParallel = ImmutableList.copyOf(requiringDownload);
-            LOGGER.debug("Submitting {} metadata files to resolve in parallel for {}", toDownloadInParallel.size(), node);
+        if (requiringDownload.size() > 1) {
+            final List<List<ComponentState>> batches = batchesOf(requiringDownload);
+            LOGGER.debug("Submitting {} metadata files to resolve in parallel in {} operations for {}", requiringDownload.size(), batches.size(), node);
             buildOperationExecutor.runAll(buildOperationQueue -> {
-                for (final ComponentState componentState : toDownloadInParallel) {
-                    buildOperationQueue.add(new DownloadMetadataOperation(componentState));
+                for (final List<ComponentState> batch : batches) {
+                    buildOperationQueue.add(new DownloadMetadataOperation(batch));
                 }
             }, BuildOperationConstraint.UNCONSTRAINED);
         }
     }
 
+    /**
+     * Splits the components to resolve in parallel into the components to resolve by each build operation.
+     * When there are many components, running a build operation per component costs more than resolving the metadata of components already cached on disk,
+     * so they are resolved in batches of {@link #COMPONENTS_PER_BATCH}.
+     */
+    static <T> List<List<T>> batchesOf(List<T> components) {
+        if (components.size() < MIN_COMPONENTS_TO_BATCH) {
+            List<List<T>> batches = Lists.newArrayListWithCapacity(components.size());
+            for (T component : components) {
+                batches.add(ImmutableList.of(component));
+            }
+            return batches;
+        }
+        return Lists.partition(ImmutableList.copyOf(components), COMPONENTS_PER_BATCH);
+    }
+
+    /**
+     * Returns the components whose metadata is worth resolving in parallel.
+     * The metadata of the other components, such as components already resolved earlier in the build, is resolved serially when the edges are attached.
+     */
+    private List<ComponentState> componentsRequiringDownload(Set<ComponentState> unresolved) {
+        List<ComponentState> requiringDownload = Lists.newArrayList();
+        for (ComponentState component : unresolved) {
+            if (!metaDataResolver.isFetchingMetadataCheap(component.getComponentId())) {
+                requiringDownload.add(component);
+            }
+        }
+        return requiringDownload;
+    }
+
     private void attachToTargetRevisionsSerially(List<EdgeState> dependencies, Spec<EdgeState> dependencyFilter) {
         // the following only needs to be done serially to preserve ordering of dependencies in the graph: we have visited the edges
         // but we still didn't add the result to the queue. Doing it from resolve threads would result in non-reproducible graphs, where
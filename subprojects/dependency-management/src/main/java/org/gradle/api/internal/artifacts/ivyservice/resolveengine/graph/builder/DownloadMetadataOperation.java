@@ -19,20 +19,25 @@
 import org.gradle.internal.operations.RunnableBuildOperation;
 import org.gradle.internal.operations.BuildOperationDescriptor;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 class DownloadMetadataOperation implements RunnableBuildOperation {
-    private final ComponentState state;
+    private final List<ComponentState> states;
 
-    DownloadMetadataOperation(ComponentState state) {
-        this.state = state;
+    DownloadMetadataOperation(List<ComponentState> states) {
+        this.states = states;
     }
 
     @Override
     public void run(BuildOperationContext context) {
-        state.getMetadataOrNull();
+        for (ComponentState state : states) {
+            state.getMetadataOrNull();
+        }
     }
 
     @Override
     public BuildOperationDescriptor.Builder description() {
-        return BuildOperationDescriptor.displayName("Resolve " + state);
+        return BuildOperationDescriptor.displayName("Resolve " + states.stream().map(Object::toString).collect(Collectors.joining(", ")));
     }
 }
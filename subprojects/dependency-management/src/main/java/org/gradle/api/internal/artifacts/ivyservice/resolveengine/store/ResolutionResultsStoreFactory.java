@@ -32,6 +32,13 @@
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Creates the binary stores that hold resolution results for the duration of the current build.
+ *
+ * The stores are temporary files and are not reused by later builds. A resolved graph is only valid for as long as every input
+ * of the traversal is unchanged, including the state of the projects it depends on and the expiry of dynamic and changing modules
+ * as evaluated at resolution time. Reusing graphs across builds is left to the configuration cache, which fingerprints those inputs.
+ */
 public class ResolutionResultsStoreFactory implements Closeable {
     private final static Logger LOG = Logging.getLogger(ResolutionResultsStoreFactory.class);
     private static final int DEFAULT_MAX_SIZE = 2000000000; //2 gigs
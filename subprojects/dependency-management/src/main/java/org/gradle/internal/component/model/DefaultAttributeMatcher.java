@@ -34,6 +34,7 @@
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An {@link AttributeMatcher}, which optimizes for the case of only comparing 0 or 1 candidates
@@ -52,6 +53,15 @@ public class DefaultAttributeMatcher implements AttributeMatcher {
      */
     private final ConcurrentMap<CachedQuery, int[]> cachedQueries = new ConcurrentHashMap<>();
 
+    /**
+     * Matching a single candidate is done for every variant of every component that is selected, mostly
+     * with the same few combinations of requested and candidate attributes. Since compatibility rules have to
+     * give the same answer for the same values, we cache whether a candidate matches the requested attributes.
+     */
+    private final ConcurrentMap<CachedMatch, Boolean> cachedMatches = new ConcurrentHashMap<>();
+    private final AtomicLong cachedMatchHits = new AtomicLong();
+    private final AtomicLong cachedMatchMisses = new AtomicLong();
+
     public DefaultAttributeMatcher(AttributeSelectionSchema schema) {
         this.schema = schema;
     }
@@ -70,6 +80,20 @@ public boolean isMatching(AttributeContainerInternal candidate, AttributeContain
         ImmutableAttributes requestedAttributes = requested.asImmutable();
         ImmutableAttributes candidateAttributes = candidate.asImmutable();
 
+        // Compatibility rules may match attributes themselves, so avoid computing the result while holding a lock on the cache
+        CachedMatch query = new CachedMatch(requestedAttributes, candidateAttributes);
+        Boolean cached = cachedMatches.get(query);
+        if (cached != null) {
+            cachedMatchHits.incrementAndGet();
+            return cached;
+        }
+        cachedMatchMisses.incrementAndGet();
+        boolean match = computeIsMatching(candidateAttributes, requestedAttributes);
+        cachedMatches.put(query, match);
+        return match;
+    }
+
+    private boolean computeIsMatching(ImmutableAttributes candidateAttributes, ImmutableAttributes requestedAttributes) {
         for (Attribute<?> attribute : requestedAttributes.keySet()) {
             AttributeValue<?> requestedValue = requestedAttributes.findEntry(attribute);
             AttributeValue<?> candidateValue = candidateAttributes.findEntry(attribute.getName());
@@ -84,6 +108,16 @@ public boolean isMatching(AttributeContainerInternal candidate, AttributeContain
         return true;
     }
 
+    /**
+     * Returns the ratio of calls to {@link #isMatching(AttributeContainerInternal, AttributeContainerInternal)} answered from
+     * the cache, or 0 when no non-empty attributes have been matched yet.
+     */
+    public double getMatchCacheHitRatio() {
+        long hits = cachedMatchHits.get();
+        long total = hits + cachedMatchMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
     @Override
     public <T> boolean isMatching(Attribute<T> attribute, T candidate, T requested) {
         return schema.matchValue(attribute, requested, candidate);
@@ -221,4 +255,44 @@ public String toString() {
                 '}';
         }
     }
+
+    private static class CachedMatch {
+        private final ImmutableAttributes requestedAttributes;
+        private final ImmutableAttributes candidateAttributes;
+        private final int hashCode;
+
+        private CachedMatch(ImmutableAttributes requestedAttributes, ImmutableAttributes candidateAttributes) {
+            this.requestedAttributes = requestedAttributes;
+            this.candidateAttributes = candidateAttributes;
+            this.hashCode = 31 * requestedAttributes.hashCode() + candidateAttributes.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CachedMatch that = (CachedMatch) o;
+            // Attributes are usually interned, so most comparisons are resolved by identity
+            return hashCode == that.hashCode &&
+                (requestedAttributes == that.requestedAttributes || requestedAttributes.equals(that.requestedAttributes)) &&
+                (candidateAttributes == that.candidateAttributes || candidateAttributes.equals(that.candidateAttributes));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "CachedMatch{" +
+                "requestedAttributes=" + requestedAttributes +
+                ", candidateAttributes=" + candidateAttributes +
+                '}';
+        }
+    }
 }
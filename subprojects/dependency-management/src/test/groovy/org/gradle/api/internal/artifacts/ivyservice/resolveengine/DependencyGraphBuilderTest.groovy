@@ -65,6 +65,7 @@ import org.gradle.internal.component.model.DependencyMetadata
 import org.gradle.internal.component.model.ExcludeMetadata
 import org.gradle.internal.component.model.IvyArtifactName
 import org.gradle.internal.component.model.LocalComponentDependencyMetadata
+import org.gradle.internal.operations.BuildOperationConstraint
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationQueue
 import org.gradle.internal.resolve.ModuleVersionNotFoundException
@@ -155,6 +156,44 @@ class DependencyGraphBuilderTest extends Specification {
         result.components == ids(root, a, b, c)
     }
 
+    def "resolves metadata of many targets requiring download in batches"() {
+        given:
+        def targets = (1..8).collect { revision("m$it") }
+        targets.each { traverses root, it }
+        def operations = []
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        result.components == ids(root, *targets)
+        1 * buildOperationProcessor.runAll(_, BuildOperationConstraint.UNCONSTRAINED) >> { Action<BuildOperationQueue> action, BuildOperationConstraint constraint ->
+            action.execute(Stub(BuildOperationQueue) {
+                add(_) >> { args ->
+                    operations << args[0]
+                    args[0].run()
+                }
+            })
+        }
+        operations.size() == 2
+    }
+
+    def "does not resolve metadata of many targets in parallel when fetching it is cheap"() {
+        given:
+        def targets = (1..8).collect { revision("m$it") }
+        targets.each { traverses root, it }
+        metaDataResolver.isFetchingMetadataCheap(_) >> true
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        result.components == ids(root, *targets)
+        0 * buildOperationProcessor.runAll(_, _)
+    }
+
     def "honors component replacements"() {
         given:
         def a = revision('a') // a->c
@@ -471,6 +471,29 @@ class DefaultAttributeMatcherTest extends Specification {
         matches == [candidate1]
     }
 
+    def "caches whether a single candidate matches the requested attributes"() {
+        given:
+        def matcher = new DefaultAttributeMatcher(schema)
+
+        def usage = Attribute.of("usage", String)
+        schema.attribute(usage)
+
+        def candidate1 = attributes(usage: 'match')
+        def candidate2 = attributes(usage: 'no match')
+        def requested = attributes(usage: 'match')
+
+        expect:
+        matcher.matchCacheHitRatio == 0
+
+        when:
+        def results = (1..4).collect { [matcher.isMatching(candidate1, requested), matcher.isMatching(candidate2, requested)] }
+
+        then:
+        results.every { it == [true, false] }
+        schema.matchValueCalls == 2
+        matcher.matchCacheHitRatio == 0.75d
+    }
+
     def "prefers a shorter match with compatible requested values and more than one extra attribute (type: #type)"() {
         given:
         def matcher = new DefaultAttributeMatcher(schema)
@@ -548,6 +571,7 @@ class DefaultAttributeMatcherTest extends Specification {
         Map<Attribute<?>, Object> preferredValue = [:]
         Map<Attribute<?>, AttributeDisambiguationRule> rules = [:]
         Map<Attribute<?>, Multimap<Object, Object>> compatibleValues = [:]
+        int matchValueCalls
 
         void attribute(Attribute<?> attribute) {
             attributes.add(attribute)
@@ -581,6 +605,7 @@ class DefaultAttributeMatcherTest extends Specification {
 
         @Override
         boolean matchValue(Attribute<?> attribute, Object requested, Object candidate) {
+            matchValueCalls++
             if (attributes.contains(attribute)) {
                 if (compatibleValues.containsKey(attribute)) {
                     if (compatibleValues.get(attribute).get(requested).contains(candidate)) {
@@ -167,7 +167,8 @@ protected Daemon createDaemon(ImmutableList<DaemonCommandAction> actions, Serial
             new DaemonTcpServerConnector(
                 get(ExecutorFactory.class),
                 get(InetAddressFactory.class),
-                DaemonMessageSerializer.create(buildActionSerializer)
+                DaemonMessageSerializer.create(buildActionSerializer),
+                new File(configuration.getBaseDir(), "sockets")
             ),
             get(DaemonRegistry.class),
             get(DaemonContext.class),
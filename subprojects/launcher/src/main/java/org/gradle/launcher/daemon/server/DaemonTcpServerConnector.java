@@ -27,15 +27,17 @@
 import org.gradle.internal.remote.internal.RemoteConnection;
 import org.gradle.internal.remote.internal.inet.InetAddressFactory;
 import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketIncomingConnector;
 import org.gradle.internal.serialize.Serializer;
 import org.gradle.internal.serialize.Serializers;
 import org.gradle.launcher.daemon.protocol.Message;
 
+import java.io.File;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Opens a TCP connection for clients to connect to communicate with a daemon.
+ * Opens a TCP connection, and a Unix domain socket where available, for clients to connect to communicate with a daemon.
  */
 public class DaemonTcpServerConnector implements DaemonServerConnector {
     final private IncomingConnector incomingConnector;
@@ -46,12 +48,16 @@ public class DaemonTcpServerConnector implements DaemonServerConnector {
     private final Lock lifecycleLock = new ReentrantLock();
     private ConnectionAcceptor acceptor;
 
-    public DaemonTcpServerConnector(ExecutorFactory executorFactory, InetAddressFactory inetAddressFactory, Serializer<Message> serializer) {
+    public DaemonTcpServerConnector(ExecutorFactory executorFactory, InetAddressFactory inetAddressFactory, Serializer<Message> serializer, File socketRootDir) {
         this.serializer = serializer;
-        this.incomingConnector = new TcpIncomingConnector(
+        this.incomingConnector = new UnixDomainSocketIncomingConnector(
                 executorFactory,
-                inetAddressFactory,
-                new UUIDGenerator()
+                new TcpIncomingConnector(
+                        executorFactory,
+                        inetAddressFactory,
+                        new UUIDGenerator()
+                ),
+                socketRootDir
         );
     }
 
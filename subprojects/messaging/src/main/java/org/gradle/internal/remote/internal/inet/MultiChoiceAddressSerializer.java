@@ -37,6 +37,10 @@ public MultiChoiceAddress read(Decoder decoder) throws IOException {
             InetAddress address = InetAddress.getByAddress(decoder.readBinary());
             addresses.add(address);
         }
+        String socketPath = decoder.readNullableString();
+        if (socketPath != null) {
+            return new UnixDomainSocketAddress(canonicalAddress, port, addresses, socketPath);
+        }
         return new MultiChoiceAddress(canonicalAddress, port, addresses);
     }
 
@@ -50,5 +54,6 @@ public void write(Encoder encoder, MultiChoiceAddress address) throws IOExceptio
         for (InetAddress inetAddress : address.getCandidates()) {
             encoder.writeBinary(inetAddress.getAddress());
         }
+        encoder.writeNullableString(address instanceof UnixDomainSocketAddress ? ((UnixDomainSocketAddress) address).getSocketPath() : null);
     }
 }
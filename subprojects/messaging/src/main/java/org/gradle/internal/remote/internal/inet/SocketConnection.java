@@ -33,6 +33,7 @@
 
 import java.io.*;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
@@ -42,8 +43,8 @@
 public class SocketConnection<T> implements RemoteConnection<T> {
     private static final Logger LOGGER = LoggerFactory.getLogger(SocketConnection.class);
     private final SocketChannel socket;
-    private final SocketInetAddress localAddress;
-    private final SocketInetAddress remoteAddress;
+    private final Object localAddress;
+    private final Object remoteAddress;
     private final ObjectWriter<T> objectWriter;
     private final ObjectReader<T> objectReader;
     private final InputStream instr;
@@ -58,18 +59,25 @@ public SocketConnection(SocketChannel socket, MessageSerializer streamSerializer
             socket.configureBlocking(false);
             outstr = new SocketOutputStream(socket);
             instr = new SocketInputStream(socket);
+            localAddress = toAddress(socket.getLocalAddress());
+            remoteAddress = toAddress(socket.getRemoteAddress());
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
-        InetSocketAddress localSocketAddress = (InetSocketAddress) socket.socket().getLocalSocketAddress();
-        localAddress = new SocketInetAddress(localSocketAddress.getAddress(), localSocketAddress.getPort());
-        InetSocketAddress remoteSocketAddress = (InetSocketAddress) socket.socket().getRemoteSocketAddress();
-        remoteAddress = new SocketInetAddress(remoteSocketAddress.getAddress(), remoteSocketAddress.getPort());
         objectReader = messageSerializer.newReader(streamSerializer.newDecoder(instr));
         encoder = streamSerializer.newEncoder(outstr);
         objectWriter = messageSerializer.newWriter(encoder);
     }
 
+    private static Object toAddress(SocketAddress socketAddress) {
+        if (socketAddress instanceof InetSocketAddress) {
+            InetSocketAddress inetSocketAddress = (InetSocketAddress) socketAddress;
+            return new SocketInetAddress(inetSocketAddress.getAddress(), inetSocketAddress.getPort());
+        }
+        // A Unix domain socket, which has no port
+        return socketAddress;
+    }
+
     @Override
     public String toString() {
         return "socket connection from " + localAddress + " to " + remoteAddress;
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An address for a server that accepts connections on a Unix domain socket, as well as on TCP.
+ *
+ * <p>Clients that can use Unix domain sockets connect to the socket file, and all other clients fall back to the TCP endpoint.</p>
+ */
+public class UnixDomainSocketAddress extends MultiChoiceAddress {
+    private final String socketPath;
+
+    public UnixDomainSocketAddress(UUID canonicalAddress, int port, List<InetAddress> candidates, String socketPath) {
+        super(canonicalAddress, port, candidates);
+        this.socketPath = socketPath;
+    }
+
+    public UnixDomainSocketAddress(MultiChoiceAddress tcpAddress, String socketPath) {
+        this(tcpAddress.getCanonicalAddress(), tcpAddress.getPort(), tcpAddress.getCandidates(), socketPath);
+    }
+
+    public String getSocketPath() {
+        return socketPath;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "[" + getCanonicalAddress() + " socket:" + socketPath + ", port:" + getPort() + ", addresses:" + getCandidates() + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && ((UnixDomainSocketAddress) o).socketPath.equals(socketPath);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public MultiChoiceAddress addAddresses(Iterable<InetAddress> candidates) {
+        return new UnixDomainSocketAddress(super.addAddresses(candidates), socketPath);
+    }
+}
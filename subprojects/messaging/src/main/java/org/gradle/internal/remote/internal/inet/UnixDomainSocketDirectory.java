@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A directory owned by the current process, which holds the Unix domain sockets that the process listens on.
+ *
+ * <p>The directory is created below a root directory shared by all processes, and the process holds a lock on a file in the directory for as long as it runs.
+ * Before creating its directory, a process deletes the directories whose lock is not held, which belong to processes that have been killed
+ * and could not delete their socket files on stop.</p>
+ *
+ * <p>Any process that can replace a socket file can intercept the connections to it, so the root directory must be private to the current user.
+ * The root directory is created accessible to its owner only, and is refused when it is not a directory owned by the current user,
+ * or when it is accessible to other users. The caller then falls back to TCP.</p>
+ */
+class UnixDomainSocketDirectory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSocketDirectory.class);
+    private static final String LOCK_FILE_NAME = "owner.lock";
+    private static final Set<PosixFilePermission> OWNER_ONLY = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE);
+
+    private final File rootDir;
+    private final Random random = new Random();
+    private File dir;
+    // Held open, and so locked, until this process exits
+    @SuppressWarnings("unused")
+    private FileChannel lock;
+    private int nextSocketId;
+
+    UnixDomainSocketDirectory(File rootDir) {
+        this.rootDir = rootDir;
+    }
+
+    /**
+     * Returns the path for a new socket in the directory of this process, creating the directory on first use.
+     */
+    synchronized File newSocketFile() throws IOException {
+        if (dir == null) {
+            createPrivateRootDir();
+            deleteStaleDirectories();
+            dir = createOwnedDirectory();
+        }
+        return new File(dir, (nextSocketId++) + ".sock");
+    }
+
+    private void createPrivateRootDir() throws IOException {
+        Path root = rootDir.toPath();
+        if (!Files.exists(root, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(root.toAbsolutePath().getParent());
+            try {
+                createPrivateDirectory(root);
+            } catch (FileAlreadyExistsException e) {
+                // Created concurrently, which is checked below
+            }
+        }
+        if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(rootDir + " is not a directory.");
+        }
+        UserPrincipal currentUser = FileSystems.getDefault().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+        if (!currentUser.equals(Files.getOwner(root, LinkOption.NOFOLLOW_LINKS))) {
+            throw new IOException(rootDir + " is not owned by the current user.");
+        }
+        PosixFileAttributeView posixView = Files.getFileAttributeView(root, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (posixView != null) {
+            PosixFileAttributes attributes = posixView.readAttributes();
+            if (!OWNER_ONLY.containsAll(attributes.permissions())) {
+                throw new IOException(rootDir + " is accessible to other users.");
+            }
+        }
+    }
+
+    private static void createPrivateDirectory(Path dir) throws IOException {
+        if (Files.getFileStore(dir.toAbsolutePath().getParent()).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(OWNER_ONLY);
+            Files.createDirectory(dir, ownerOnly);
+        } else {
+            Files.createDirectory(dir);
+        }
+    }
+
+    private File createOwnedDirectory() throws IOException {
+        // Keep the name short, as the length of a socket path is limited
+        File candidate = new File(rootDir, Long.toString(random.nextLong() & Long.MAX_VALUE, Character.MAX_RADIX));
+        createPrivateDirectory(candidate.toPath());
+        FileChannel channel = new RandomAccessFile(new File(candidate, LOCK_FILE_NAME), "rw").getChannel();
+        if (channel.tryLock() == null) {
+            channel.close();
+            throw new IOException("Could not lock directory " + candidate);
+        }
+        lock = channel;
+        return candidate;
+    }
+
+    private void deleteStaleDirectories() {
+        File[] candidates = rootDir.listFiles();
+        if (candidates == null) {
+            return;
+        }
+        for (File candidate : candidates) {
+            if (Files.isDirectory(candidate.toPath(), LinkOption.NOFOLLOW_LINKS) && isStale(candidate)) {
+                LOGGER.debug("Deleting Unix domain sockets of stopped process in {}.", candidate);
+                File[] files = candidate.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                candidate.delete();
+            }
+        }
+    }
+
+    private static boolean isStale(File candidate) {
+        File lockFile = new File(candidate, LOCK_FILE_NAME);
+        if (!lockFile.isFile()) {
+            // The owner may not have locked the directory yet
+            return false;
+        }
+        try {
+            RandomAccessFile file = new RandomAccessFile(lockFile, "rw");
+            try {
+                return file.getChannel().tryLock() != null;
+            } finally {
+                file.close();
+            }
+        } catch (OverlappingFileLockException e) {
+            // Owned by this process
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
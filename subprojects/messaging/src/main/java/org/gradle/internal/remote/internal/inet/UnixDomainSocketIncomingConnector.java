@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.api.Action;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.ConnectionAcceptor;
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.IncomingConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Accepts local connections on a Unix domain socket, in addition to the TCP connections accepted by {@link TcpIncomingConnector}.
+ *
+ * <p>Falls back to TCP only when remote connections are allowed, or when Unix domain sockets are not available.</p>
+ */
+public class UnixDomainSocketIncomingConnector implements IncomingConnector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSocketIncomingConnector.class);
+    private final ExecutorFactory executorFactory;
+    private final TcpIncomingConnector tcpConnector;
+    private final UnixDomainSocketDirectory socketDirectory;
+
+    public UnixDomainSocketIncomingConnector(ExecutorFactory executorFactory, TcpIncomingConnector tcpConnector) {
+        this(executorFactory, tcpConnector, new File(System.getProperty("java.io.tmpdir"), "gradle-sockets-" + System.getProperty("user.name")));
+    }
+
+    /**
+     * @param socketRootDir The directory below which this process creates the directory holding its sockets. Unix domain sockets are not used
+     * when this directory is not private to the current user.
+     */
+    public UnixDomainSocketIncomingConnector(ExecutorFactory executorFactory, TcpIncomingConnector tcpConnector, File socketRootDir) {
+        this.executorFactory = executorFactory;
+        this.tcpConnector = tcpConnector;
+        this.socketDirectory = new UnixDomainSocketDirectory(socketRootDir);
+    }
+
+    @Override
+    public ConnectionAcceptor accept(Action<ConnectCompletion> action, boolean allowRemote) {
+        final ConnectionAcceptor tcpAcceptor = tcpConnector.accept(action, allowRemote);
+        UnixDomainSockets unixDomainSockets = UnixDomainSockets.getInstance();
+        if (allowRemote || unixDomainSockets == null) {
+            return tcpAcceptor;
+        }
+
+        MultiChoiceAddress tcpAddress = (MultiChoiceAddress) tcpAcceptor.getAddress();
+        final File socketFile;
+        try {
+            socketFile = socketDirectory.newSocketFile();
+        } catch (IOException e) {
+            LOGGER.debug("Could not use a private directory for Unix domain socket, using TCP only.", e);
+            return tcpAcceptor;
+        }
+        if (!UnixDomainSockets.canUse(socketFile)) {
+            LOGGER.debug("Path {} is too long for a Unix domain socket, using TCP only.", socketFile);
+            return tcpAcceptor;
+        }
+
+        final ServerSocketChannel serverSocket;
+        try {
+            serverSocket = unixDomainSockets.bind(socketFile);
+        } catch (IOException e) {
+            LOGGER.debug("Could not listen on Unix domain socket {}, using TCP only.", socketFile, e);
+            return tcpAcceptor;
+        }
+
+        final Address address = new UnixDomainSocketAddress(tcpAddress, socketFile.getAbsolutePath());
+        LOGGER.debug("Listening on {}.", address);
+
+        final Closeable socketFileDeleter = new Closeable() {
+            @Override
+            public void close() {
+                socketFile.delete();
+            }
+        };
+        final ManagedExecutor executor = executorFactory.create("Incoming local Unix domain socket Connector on " + socketFile);
+        executor.execute(new Receiver(serverSocket, action));
+
+        return new ConnectionAcceptor() {
+            @Override
+            public Address getAddress() {
+                return address;
+            }
+
+            @Override
+            public void requestStop() {
+                CompositeStoppable.stoppable(serverSocket, socketFileDeleter).stop();
+                tcpAcceptor.requestStop();
+            }
+
+            @Override
+            public void stop() {
+                requestStop();
+                CompositeStoppable.stoppable(executor, tcpAcceptor).stop();
+            }
+        };
+    }
+
+    private static class Receiver implements Runnable {
+        private final ServerSocketChannel serverSocket;
+        private final Action<ConnectCompletion> action;
+
+        public Receiver(ServerSocketChannel serverSocket, Action<ConnectCompletion> action) {
+            this.serverSocket = serverSocket;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    while (true) {
+                        final SocketChannel socket = serverSocket.accept();
+                        LOGGER.debug("Accepted Unix domain socket connection on {}.", socket.getLocalAddress());
+                        try {
+                            action.execute(new SocketConnectCompletion(socket));
+                        } catch (Throwable t) {
+                            socket.close();
+                            throw t;
+                        }
+                    }
+                } catch (ClosedChannelException e) {
+                    // Ignore
+                } catch (Throwable e) {
+                    LOGGER.error("Could not accept local connection.", e);
+                }
+            } finally {
+                CompositeStoppable.stoppable(serverSocket).stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.ConnectException;
+import org.gradle.internal.remote.internal.OutgoingConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connects to a {@link UnixDomainSocketAddress} using its Unix domain socket when possible, and falls back to TCP otherwise.
+ */
+public class UnixDomainSocketOutgoingConnector implements OutgoingConnector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSocketOutgoingConnector.class);
+    private final OutgoingConnector tcpConnector;
+
+    public UnixDomainSocketOutgoingConnector(OutgoingConnector tcpConnector) {
+        this.tcpConnector = tcpConnector;
+    }
+
+    @Override
+    public ConnectCompletion connect(Address destinationAddress) throws ConnectException {
+        UnixDomainSockets unixDomainSockets = UnixDomainSockets.getInstance();
+        if (destinationAddress instanceof UnixDomainSocketAddress && unixDomainSockets != null) {
+            File socketFile = new File(((UnixDomainSocketAddress) destinationAddress).getSocketPath());
+            LOGGER.debug("Attempting to connect to Unix domain socket {}.", socketFile);
+            try {
+                SocketChannel socketChannel = unixDomainSockets.connect(socketFile);
+                LOGGER.debug("Connected to Unix domain socket {}.", socketFile);
+                return new SocketConnectCompletion(socketChannel);
+            } catch (IOException e) {
+                LOGGER.debug("Cannot connect to Unix domain socket {}, falling back to TCP.", socketFile, e);
+            }
+        }
+        return tcpConnector.connect(destinationAddress);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.internal.os.OperatingSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Access to Unix domain socket channels, which are available from Java 16. This class uses reflection as the messaging classes are also used by workers running on older JVMs.
+ */
+class UnixDomainSockets {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSockets.class);
+
+    /**
+     * Set this system property to {@code false} to always use TCP for local connections.
+     */
+    static final String ENABLED_PROPERTY = "org.gradle.internal.remote.unix-domain-sockets";
+
+    /**
+     * The maximum length of a socket path on Linux, including the terminating null byte, is 108 bytes.
+     */
+    private static final int MAX_SOCKET_PATH_LENGTH = 107;
+
+    @Nullable
+    private static final UnixDomainSockets INSTANCE = create();
+
+    private final ProtocolFamily unixFamily;
+    private final Method openServerChannel;
+    private final Method openChannel;
+    private final Method createAddress;
+
+    private UnixDomainSockets(ProtocolFamily unixFamily, Method openServerChannel, Method openChannel, Method createAddress) {
+        this.unixFamily = unixFamily;
+        this.openServerChannel = openServerChannel;
+        this.openChannel = openChannel;
+        this.createAddress = createAddress;
+    }
+
+    @Nullable
+    private static UnixDomainSockets create() {
+        if (!OperatingSystem.current().isLinux() || !Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        try {
+            ProtocolFamily unixFamily = StandardProtocolFamily.valueOf("UNIX");
+            Method openServerChannel = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+            Method openChannel = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+            Method createAddress = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+            return new UnixDomainSockets(unixFamily, openServerChannel, openChannel, createAddress);
+        } catch (Exception e) {
+            LOGGER.debug("Unix domain sockets are not supported by this JVM.");
+            return null;
+        }
+    }
+
+    /**
+     * Returns the Unix domain socket support for this JVM, or {@code null} when not available.
+     */
+    @Nullable
+    static UnixDomainSockets getInstance() {
+        return INSTANCE;
+    }
+
+    static boolean canUse(File socketFile) {
+        return socketFile.getAbsolutePath().length() <= MAX_SOCKET_PATH_LENGTH;
+    }
+
+    ServerSocketChannel bind(File socketFile) throws IOException {
+        ServerSocketChannel channel = (ServerSocketChannel) invoke(openServerChannel, null, unixFamily);
+        try {
+            channel.bind(address(socketFile));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    SocketChannel connect(File socketFile) throws IOException {
+        SocketChannel channel = (SocketChannel) invoke(openChannel, null, unixFamily);
+        try {
+            channel.connect(address(socketFile));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private SocketAddress address(File socketFile) throws IOException {
+        return (SocketAddress) invoke(createAddress, null, socketFile.getAbsolutePath());
+    }
+
+    private static Object invoke(Method method, @Nullable Object target, Object arg) throws IOException {
+        try {
+            return method.invoke(target, arg);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+}
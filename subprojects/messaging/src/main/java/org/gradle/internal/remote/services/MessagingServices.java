@@ -28,6 +28,8 @@
 import org.gradle.internal.remote.internal.inet.InetAddressFactory;
 import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
 import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketIncomingConnector;
+import org.gradle.internal.remote.internal.inet.UnixDomainSocketOutgoingConnector;
 
 import java.util.UUID;
 
@@ -50,14 +52,17 @@ protected InetAddressFactory createInetAddressFactory() {
     }
 
     protected OutgoingConnector createOutgoingConnector() {
-        return new TcpOutgoingConnector();
+        return new UnixDomainSocketOutgoingConnector(new TcpOutgoingConnector());
     }
 
     protected IncomingConnector createIncomingConnector(ExecutorFactory executorFactory, InetAddressFactory inetAddressFactory) {
-        return new TcpIncomingConnector(
+        return new UnixDomainSocketIncomingConnector(
                 executorFactory,
-                inetAddressFactory,
-                idGenerator
+                new TcpIncomingConnector(
+                        executorFactory,
+                        inetAddressFactory,
+                        idGenerator
+                )
         );
     }
 
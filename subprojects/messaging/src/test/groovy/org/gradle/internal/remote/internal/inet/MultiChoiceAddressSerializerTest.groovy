@@ -24,4 +24,14 @@ class MultiChoiceAddressSerializerTest extends SerializerSpec {
         expect:
         serialize(address, new MultiChoiceAddressSerializer()) == address
     }
+
+    def "serializes a Unix domain socket address"() {
+        def address = new UnixDomainSocketAddress(UUID.randomUUID(), 1234, [InetAddress.getLocalHost()], "/tmp/gradle.sock")
+
+        expect:
+        def result = serialize(address, new MultiChoiceAddressSerializer())
+        result instanceof UnixDomainSocketAddress
+        result == address
+        result.socketPath == "/tmp/gradle.sock"
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.internal.remote.internal.inet
+
+import org.gradle.api.Action
+import org.gradle.internal.id.UUIDGenerator
+import org.gradle.internal.remote.internal.ConnectCompletion
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.internal.serialize.Serializers
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.precondition.Requires
+import org.gradle.test.preconditions.UnitTestPreconditions
+import spock.lang.Shared
+import spock.lang.Timeout
+
+import java.nio.file.Files
+import java.nio.file.attribute.PosixFilePermissions
+
+@Timeout(60)
+@Requires([UnitTestPreconditions.Linux, UnitTestPreconditions.Jdk16OrLater])
+class UnixDomainSocketConnectorTest extends ConcurrentSpec {
+    @Shared def serializer = Serializers.stateful(BaseSerializerFactory.STRING_SERIALIZER)
+    final def tcpIncomingConnector = new TcpIncomingConnector(executorFactory, new InetAddressFactory(), new UUIDGenerator())
+    // The length of a socket path is limited, so use a short temporary directory rather than the test directory
+    final def socketRootDir = new TestFile(Files.createTempDirectory("sockets").toFile())
+    final def incomingConnector = new UnixDomainSocketIncomingConnector(executorFactory, tcpIncomingConnector, socketRootDir)
+    final def outgoingConnector = new UnixDomainSocketOutgoingConnector(new TcpOutgoingConnector())
+
+    def cleanup() {
+        socketRootDir.deleteDir()
+    }
+
+    def "client connects to local server using Unix domain socket"() {
+        when:
+        def acceptor = incomingConnector.accept({ ConnectCompletion event ->
+            def conn = event.create(serializer)
+            conn.dispatch("hello")
+            conn.stop()
+        } as Action, false)
+        def completion = outgoingConnector.connect(acceptor.address)
+        def connection = completion.create(serializer)
+
+        then:
+        acceptor.address instanceof UnixDomainSocketAddress
+        new File(acceptor.address.socketPath).exists()
+        connection.receive() == "hello"
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "deletes socket file when acceptor is stopped"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        def socketFile = new File(acceptor.address.socketPath)
+        acceptor.stop()
+
+        then:
+        !socketFile.exists()
+    }
+
+    def "creates socket in a directory owned by this process"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        def socketFile = new File(acceptor.address.socketPath)
+
+        then:
+        socketFile.parentFile.parentFile == socketRootDir
+        new File(socketFile.parentFile, "owner.lock").file
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "deletes sockets of processes that are no longer running"() {
+        given:
+        def staleDir = socketRootDir.createDir("stale")
+        staleDir.createFile("owner.lock")
+        staleDir.createFile("0.sock")
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+
+        then:
+        !staleDir.exists()
+        new File(acceptor.address.socketPath).exists()
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "does not delete sockets of other connectors that are running"() {
+        given:
+        def otherConnector = new UnixDomainSocketIncomingConnector(executorFactory, new TcpIncomingConnector(executorFactory, new InetAddressFactory(), new UUIDGenerator()), socketRootDir)
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        def otherAcceptor = otherConnector.accept(Mock(Action), false)
+
+        then:
+        new File(acceptor.address.socketPath).exists()
+        new File(otherAcceptor.address.socketPath).exists()
+
+        cleanup:
+        acceptor?.stop()
+        otherAcceptor?.stop()
+    }
+
+    def "creates socket root directory accessible to the current user only"() {
+        given:
+        def rootDir = socketRootDir.file("root")
+        def connector = new UnixDomainSocketIncomingConnector(executorFactory, tcpIncomingConnector, rootDir)
+
+        when:
+        def acceptor = connector.accept(Mock(Action), false)
+
+        then:
+        acceptor.address instanceof UnixDomainSocketAddress
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(rootDir.toPath())) == "rwx------"
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "uses TCP only when socket root directory is accessible to other users"() {
+        given:
+        Files.setPosixFilePermissions(socketRootDir.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"))
+        def staleDir = socketRootDir.createDir("stale")
+        staleDir.createFile("owner.lock")
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+
+        then:
+        acceptor.address instanceof MultiChoiceAddress
+        !(acceptor.address instanceof UnixDomainSocketAddress)
+        staleDir.exists()
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "uses TCP only when socket root directory is a symbolic link"() {
+        given:
+        def link = socketRootDir.file("link")
+        Files.createSymbolicLink(link.toPath(), socketRootDir.createDir("target").toPath())
+        def connector = new UnixDomainSocketIncomingConnector(executorFactory, tcpIncomingConnector, link)
+
+        when:
+        def acceptor = connector.accept(Mock(Action), false)
+
+        then:
+        !(acceptor.address instanceof UnixDomainSocketAddress)
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "client falls back to TCP when Unix domain socket is not available"() {
+        when:
+        def acceptor = incomingConnector.accept({ ConnectCompletion event ->
+            def conn = event.create(serializer)
+            conn.dispatch("hello")
+            conn.stop()
+        } as Action, false)
+        def address = new UnixDomainSocketAddress(acceptor.address, acceptor.address.socketPath + ".missing")
+        def connection = outgoingConnector.connect(address).create(serializer)
+
+        then:
+        connection.receive() == "hello"
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "uses TCP only when remote connections are allowed"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), true)
+
+        then:
+        acceptor.address instanceof MultiChoiceAddress
+        !(acceptor.address instanceof UnixDomainSocketAddress)
+
+        cleanup:
+        acceptor?.stop()
+    }
+}
@@ -52,6 +52,29 @@ class ParallelBuildPerformanceTest extends AbstractCrossBuildPerformanceTest {
         results
     }
 
+    def "clean assemble with critical path scheduling"() {
+        given:
+        runner.testGroup = "parallel builds"
+        runner.buildSpec {
+            displayName("critical path")
+            invocation {
+                args("-Dorg.gradle.parallel=true", "--max-workers=4", "-Dorg.gradle.internal.executor.critical-path=true")
+            }
+        }
+        runner.baseline {
+            displayName("execution order")
+            invocation {
+                args("-Dorg.gradle.parallel=true", "--max-workers=4")
+            }
+        }
+
+        when:
+        def results = runner.run()
+
+        then:
+        results
+    }
+
     @Override
     protected void defaultSpec(GradleBuildExperimentSpec.GradleBuilder builder) {
         super.defaultSpec(builder)
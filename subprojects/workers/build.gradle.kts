@@ -6,11 +6,14 @@ description = "Infrastructure for starting and managing worker processes"
 
 dependencies {
     implementation(project(":base-services"))
+    implementation(project(":build-option"))
     implementation(project(":messaging"))
     implementation(project(":logging"))
     implementation(project(":process-services"))
     implementation(project(":worker-processes"))
     implementation(project(":persistent-cache"))
+    implementation(project(":jvm-services"))
+    implementation(project(":hashing"))
     implementation(project(":core-api"))
     implementation(project(":model-core"))
     implementation(project(":core"))
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.Message;
+import org.gradle.internal.serialize.Serializer;
+
+/**
+ * Serializes the {@link DefaultWorkResult} returned for each work item executed by a worker daemon.
+ *
+ * <p>Only the failure, if any, is written using Java serialization.</p>
+ */
+public class DefaultWorkResultSerializer implements Serializer<DefaultWorkResult> {
+    private final ClassLoader classLoader;
+
+    public DefaultWorkResultSerializer() {
+        this.classLoader = getClass().getClassLoader();
+    }
+
+    @Override
+    public void write(Encoder encoder, DefaultWorkResult result) throws Exception {
+        encoder.writeBoolean(result.getDidWork());
+        Throwable exception = result.getException();
+        if (exception == null) {
+            encoder.writeBoolean(false);
+        } else {
+            encoder.writeBoolean(true);
+            Message.send(exception, encoder.getOutputStream());
+        }
+    }
+
+    @Override
+    public DefaultWorkResult read(Decoder decoder) throws Exception {
+        boolean didWork = decoder.readBoolean();
+        if (!decoder.readBoolean()) {
+            return didWork ? DefaultWorkResult.SUCCESS : new DefaultWorkResult(false, null);
+        }
+        Throwable exception = (Throwable) Message.receive(decoder.getInputStream(), classLoader);
+        return new DefaultWorkResult(didWork, exception);
+    }
+}
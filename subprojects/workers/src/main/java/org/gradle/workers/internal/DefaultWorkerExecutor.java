@@ -20,6 +20,8 @@
 import org.gradle.api.Action;
 import org.gradle.internal.Actions;
 import org.gradle.internal.Cast;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.classpath.CachedClasspathTransformer;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.classpath.DefaultClassPath;
@@ -57,6 +59,11 @@
 import static org.gradle.internal.work.AsyncWorkTracker.ProjectLockRetention.RETAIN_PROJECT_LOCKS;
 
 public class DefaultWorkerExecutor implements WorkerExecutor {
+    /**
+     * Shares the workers fairly between the build operations that submit work, instead of running work items strictly in submission order.
+     */
+    public static final InternalFlag FAIR_SCHEDULING = new InternalFlag("org.gradle.internal.workers.fair-scheduling");
+
     private final ConditionalExecutionQueue<DefaultWorkResult> executionQueue;
     private final WorkerFactory daemonWorkerFactory;
     private final WorkerFactory isolatedClassloaderWorkerFactory;
@@ -72,6 +79,7 @@ public class DefaultWorkerExecutor implements WorkerExecutor {
     private final IsolationScheme<WorkAction<?>, WorkParameters> isolationScheme = new IsolationScheme<>(Cast.uncheckedCast(WorkAction.class), WorkParameters.class, WorkParameters.None.class);
     private final CachedClasspathTransformer classpathTransformer;
     private final File baseDir;
+    private final boolean fairScheduling;
 
     public DefaultWorkerExecutor(
         WorkerFactory daemonWorkerFactory, WorkerFactory isolatedClassloaderWorkerFactory, WorkerFactory noIsolationWorkerFactory,
@@ -79,7 +87,8 @@ public DefaultWorkerExecutor(
         AsyncWorkTracker asyncWorkTracker, WorkerDirectoryProvider workerDirectoryProvider, WorkerExecutionQueueFactory workerExecutionQueueFactory,
         ClassLoaderStructureProvider classLoaderStructureProvider, ActionExecutionSpecFactory actionExecutionSpecFactory, Instantiator instantiator,
         CachedClasspathTransformer classpathTransformer,
-        File baseDir
+        File baseDir,
+        InternalOptions internalOptions
     ) {
         this.daemonWorkerFactory = daemonWorkerFactory;
         this.isolatedClassloaderWorkerFactory = isolatedClassloaderWorkerFactory;
@@ -95,6 +104,7 @@ public DefaultWorkerExecutor(
         this.instantiator = instantiator;
         this.classpathTransformer = classpathTransformer;
         this.baseDir = baseDir;
+        this.fairScheduling = internalOptions.getOption(FAIR_SCHEDULING).get();
     }
 
     @Override
@@ -172,7 +182,12 @@ private AsyncWorkCompletion submitWork(IsolatedParametersActionExecutionSpec<?>
                 throw new WorkExecutionException(spec.getDisplayName(), t);
             }
         });
-        executionQueue.submit(execution);
+        if (fairScheduling) {
+            // Queue the work of each build operation separately, so that a task that submits many work items does not starve other tasks
+            executionQueue.submit(currentBuildOperation.getId(), execution);
+        } else {
+            executionQueue.submit(execution);
+        }
         asyncWorkTracker.registerWork(currentBuildOperation, execution);
         return execution;
     }
@@ -21,12 +21,28 @@
 import org.gradle.internal.serialize.Serializer;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Serializes work items sent to a worker daemon.
+ *
+ * <p>Work items submitted with the same worker requirement share the same classloader structure, which holds the whole worker classpath.
+ * An instance of this serializer is used for the messages of a single connection, so a classloader structure is sent once per connection
+ * and later work items refer to it by index. This keeps the message for a small work item close to the size of its isolated parameters.</p>
+ */
 public class TransportableActionExecutionSpecSerializer implements Serializer<TransportableActionExecutionSpec> {
     private static final byte FLAT = (byte) 0;
     private static final byte HIERARCHICAL = (byte) 1;
+    private static final byte HIERARCHICAL_REFERENCE = (byte) 2;
 
     private final Serializer<HierarchicalClassLoaderStructure> hierarchicalClassLoaderStructureSerializer = new HierarchicalClassLoaderStructureSerializer();
+    // Classloader structures written to the connection, by index
+    private final Map<HierarchicalClassLoaderStructure, Integer> writtenStructures = new HashMap<>();
+    // Classloader structures read from the connection, in order
+    private final List<HierarchicalClassLoaderStructure> readStructures = new ArrayList<>();
 
     @Override
     public void write(Encoder encoder, TransportableActionExecutionSpec spec) throws Exception {
@@ -35,8 +51,16 @@ public void write(Encoder encoder, TransportableActionExecutionSpec spec) throws
         encoder.writeString(spec.getBaseDir().getAbsolutePath());
         encoder.writeBinary(spec.getSerializedParameters());
         if (spec.getClassLoaderStructure() instanceof HierarchicalClassLoaderStructure) {
-            encoder.writeByte(HIERARCHICAL);
-            hierarchicalClassLoaderStructureSerializer.write(encoder, (HierarchicalClassLoaderStructure) spec.getClassLoaderStructure());
+            HierarchicalClassLoaderStructure classLoaderStructure = (HierarchicalClassLoaderStructure) spec.getClassLoaderStructure();
+            Integer index = writtenStructures.get(classLoaderStructure);
+            if (index != null) {
+                encoder.writeByte(HIERARCHICAL_REFERENCE);
+                encoder.writeSmallInt(index);
+            } else {
+                encoder.writeByte(HIERARCHICAL);
+                hierarchicalClassLoaderStructureSerializer.write(encoder, classLoaderStructure);
+                writtenStructures.put(classLoaderStructure, writtenStructures.size());
+            }
         } else if (spec.getClassLoaderStructure() instanceof FlatClassLoaderStructure) {
             encoder.writeByte(FLAT);
             // If the classloader structure is flat, there's no need to send the classpath
@@ -58,7 +82,12 @@ public TransportableActionExecutionSpec read(Decoder decoder) throws Exception {
                 classLoaderStructure = new FlatClassLoaderStructure(null);
                 break;
             case HIERARCHICAL:
-                classLoaderStructure = hierarchicalClassLoaderStructureSerializer.read(decoder);
+                HierarchicalClassLoaderStructure hierarchicalClassLoaderStructure = hierarchicalClassLoaderStructureSerializer.read(decoder);
+                readStructures.add(hierarchicalClassLoaderStructure);
+                classLoaderStructure = hierarchicalClassLoaderStructure;
+                break;
+            case HIERARCHICAL_REFERENCE:
+                classLoaderStructure = readStructures.get(decoder.readSmallInt());
                 break;
             default:
                 throw new IllegalArgumentException("Unexpected payload type.");
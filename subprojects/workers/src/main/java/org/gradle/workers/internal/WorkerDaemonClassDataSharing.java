@@ -0,0 +1,290 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import org.gradle.api.JavaVersion;
+import org.gradle.api.internal.cache.CacheConfigurationsInternal;
+import org.gradle.api.internal.cache.DefaultCacheCleanupStrategy;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.cache.CacheCleanupStrategy;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.AbstractCacheCleanup;
+import org.gradle.cache.internal.CompositeCleanupAction;
+import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
+import org.gradle.cache.internal.SingleDepthFilesFinder;
+import org.gradle.cache.scopes.GlobalScopedCacheBuilderFactory;
+import org.gradle.internal.buildoption.InternalFlag;
+import org.gradle.internal.file.FileAccessTimeJournal;
+import org.gradle.internal.file.FileAccessTracker;
+import org.gradle.internal.file.impl.SingleDepthFileAccessTracker;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.jvm.inspection.JvmInstallationMetadata;
+import org.gradle.internal.jvm.inspection.JvmMetadataDetector;
+import org.gradle.jvm.toolchain.internal.InstallationLocation;
+import org.gradle.process.ExecResult;
+import org.gradle.process.internal.JavaExecHandleBuilder;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+
+/**
+ * Manages the AppCDS archives used to reduce the startup time of worker daemons.
+ *
+ * <p>An archive is keyed by the Java installation, JVM arguments and application classpath of the worker daemon.
+ * When there is no archive for a key, the first worker daemon started for that key records the classes it loads and dumps them to a temporary file when it exits.
+ * The temporary file is then moved into place, so that worker daemons started later, in this build or in later builds, map the archive at startup instead of loading and verifying these classes again.</p>
+ *
+ * <p>Archives that have not been used recently are removed by the cleanup of the cache, along with temporary files left behind by worker daemons that did not stop cleanly.</p>
+ *
+ * <p>Dynamic archives are supported from Java 13, older JVMs are started without class data sharing.
+ * Worker daemons whose JVM arguments already configure class data sharing or attach an agent are also started without it, as are all worker daemons unless {@link #ENABLED} is set.
+ * Class data sharing is opt-in because dumping the archive delays the exit of the first worker daemon for a key, and the startup time saved by later worker daemons has not been measured yet.</p>
+ *
+ * <p>The JVM logging of class data sharing is turned off, so that a JVM that cannot use or create an archive does not print warnings to the build output.
+ * Archives that could not be created are reported at debug level.</p>
+ */
+public class WorkerDaemonClassDataSharing implements Closeable {
+    private static final Logger LOGGER = Logging.getLogger(WorkerDaemonClassDataSharing.class);
+
+    public static final InternalFlag ENABLED = new InternalFlag("org.gradle.internal.workers.class-data-sharing");
+
+    // JVM arguments that turn class data sharing off, use another archive or change the classes that are loaded
+    private static final List<String> INCOMPATIBLE_JVM_ARG_PREFIXES = Arrays.asList(
+        "-Xshare:",
+        "-XX:-UseSharedSpaces",
+        "-XX:SharedArchiveFile",
+        "-XX:ArchiveClassesAtExit",
+        "-XX:SharedClassListFile",
+        "-XX:DumpLoadedClassList",
+        "-javaagent:",
+        "-agentlib:",
+        "-agentpath:"
+    );
+    private static final String[] QUIET_LOGGING_JVM_ARGS = {"-Xlog:cds*=off", "-Xlog:class+path=off"};
+
+    private static final String CACHE_NAME = "worker-cds";
+    private static final String ARCHIVE_SUFFIX = ".jsa";
+    private static final String TEMP_ARCHIVE_SUFFIX = ".tmp";
+    private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+    // A worker daemon only writes its temporary archive while exiting, so a temporary archive this old was left behind
+    private static final long STALE_TEMP_ARCHIVE_AGE = TimeUnit.HOURS.toMillis(1);
+
+    private final PersistentCache cache;
+    private final FileAccessTracker fileAccessTracker;
+    private final JvmMetadataDetector jvmMetadataDetector;
+    private final Set<String> archivesInProgress = ConcurrentHashMap.newKeySet();
+
+    public WorkerDaemonClassDataSharing(
+        GlobalScopedCacheBuilderFactory cacheBuilderFactory,
+        CacheConfigurationsInternal cacheConfigurations,
+        FileAccessTimeJournal fileAccessTimeJournal,
+        JvmMetadataDetector jvmMetadataDetector
+    ) {
+        this(
+            cacheBuilderFactory
+                .createCacheBuilder(CACHE_NAME)
+                .withDisplayName("worker daemon class data sharing archives")
+                .withLockOptions(mode(FileLockManager.LockMode.OnDemand))
+                .withCleanupStrategy(createCacheCleanupStrategy(cacheConfigurations, fileAccessTimeJournal))
+                .open(),
+            fileAccessTimeJournal,
+            jvmMetadataDetector
+        );
+    }
+
+    WorkerDaemonClassDataSharing(PersistentCache cache, FileAccessTimeJournal fileAccessTimeJournal, JvmMetadataDetector jvmMetadataDetector) {
+        this.cache = cache;
+        this.fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, cache.getBaseDir(), FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
+        this.jvmMetadataDetector = jvmMetadataDetector;
+    }
+
+    private static CacheCleanupStrategy createCacheCleanupStrategy(CacheConfigurationsInternal cacheConfigurations, FileAccessTimeJournal fileAccessTimeJournal) {
+        return DefaultCacheCleanupStrategy.from(
+            CompositeCleanupAction.builder()
+                .add(new StaleTempArchiveCleanup())
+                .add(
+                    new LeastRecentlyUsedCacheCleanup(
+                        new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP),
+                        fileAccessTimeJournal,
+                        cacheConfigurations.getCreatedResources().getRemoveUnusedEntriesOlderThanAsSupplier()
+                    )
+                ).build(),
+            cacheConfigurations.getCleanupFrequency()
+        );
+    }
+
+    /**
+     * Configures the given worker daemon command to use or to create an archive, when its JVM supports it and its JVM arguments allow it.
+     *
+     * @return An action to run once the worker daemon has stopped.
+     */
+    public StopAction configure(JavaExecHandleBuilder javaCommand, Collection<File> applicationClasspath) {
+        String incompatibleJvmArg = incompatibleJvmArg(javaCommand.getAllJvmArgs());
+        if (incompatibleJvmArg != null) {
+            LOGGER.debug("Worker daemon will not use class data sharing, as it is started with JVM argument {}.", incompatibleJvmArg);
+            return StopAction.NONE;
+        }
+        JvmInstallationMetadata jvm = jvmFor(javaCommand.getExecutable());
+        if (jvm == null || !jvm.getLanguageVersion().isCompatibleWith(JavaVersion.VERSION_13)) {
+            return StopAction.NONE;
+        }
+
+        final String key = archiveKey(javaCommand, jvm, applicationClasspath);
+        final File archivesDir = cache.getBaseDir();
+        final File archive = new File(archivesDir, key + ARCHIVE_SUFFIX);
+        if (archive.isFile()) {
+            fileAccessTracker.markAccessed(archive);
+            javaCommand.jvmArgs(QUIET_LOGGING_JVM_ARGS);
+            javaCommand.jvmArgs("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+            return StopAction.NONE;
+        }
+        if (!archivesInProgress.add(key)) {
+            // Another worker daemon is already creating this archive
+            return StopAction.NONE;
+        }
+
+        final File tempArchive = new File(archivesDir, key + "-" + UUID.randomUUID() + TEMP_ARCHIVE_SUFFIX);
+        if (!archivesDir.isDirectory() && !archivesDir.mkdirs()) {
+            archivesInProgress.remove(key);
+            return StopAction.NONE;
+        }
+        LOGGER.debug("Worker daemon will create class data sharing archive {}.", archive);
+        javaCommand.jvmArgs(QUIET_LOGGING_JVM_ARGS);
+        javaCommand.jvmArgs("-XX:ArchiveClassesAtExit=" + tempArchive.getAbsolutePath());
+        return new StopAction() {
+            @Override
+            public void stopped(ExecResult result) {
+                try {
+                    if (result.getExitValue() != 0) {
+                        LOGGER.debug("Could not create class data sharing archive {}, as the worker daemon exited with value {}.", archive, result.getExitValue());
+                    } else if (!tempArchive.isFile()) {
+                        LOGGER.debug("Could not create class data sharing archive {}, as the worker daemon did not dump its classes.", archive);
+                    } else {
+                        cache.useCache(() -> moveIntoPlace(tempArchive, archive));
+                    }
+                } finally {
+                    tempArchive.delete();
+                    archivesInProgress.remove(key);
+                }
+            }
+        };
+    }
+
+    private void moveIntoPlace(File tempArchive, File archive) {
+        try {
+            Files.move(tempArchive.toPath(), archive.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            fileAccessTracker.markAccessed(archive);
+            LOGGER.debug("Created class data sharing archive {}.", archive);
+        } catch (IOException e) {
+            LOGGER.debug("Could not create class data sharing archive {}.", archive, e);
+        }
+    }
+
+    @Nullable
+    private static String incompatibleJvmArg(List<String> jvmArgs) {
+        for (String jvmArg : jvmArgs) {
+            for (String prefix : INCOMPATIBLE_JVM_ARG_PREFIXES) {
+                if (jvmArg.startsWith(prefix)) {
+                    return jvmArg;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private JvmInstallationMetadata jvmFor(String executable) {
+        File binDir = new File(executable).getParentFile();
+        if (binDir == null || binDir.getParentFile() == null) {
+            return null;
+        }
+        JvmInstallationMetadata metadata = jvmMetadataDetector.getMetadata(new InstallationLocation(binDir.getParentFile(), "worker daemon"));
+        return metadata.isValidInstallation() ? metadata : null;
+    }
+
+    private static String archiveKey(JavaExecHandleBuilder javaCommand, JvmInstallationMetadata jvm, Collection<File> applicationClasspath) {
+        Hasher hasher = Hashing.newHasher();
+        hasher.putString(javaCommand.getExecutable());
+        // An archive can only be used by the exact JVM build that created it, and a JVM may be updated in place
+        hasher.putString(jvm.getJvmVendor());
+        hasher.putString(jvm.getRuntimeVersion());
+        hasher.putString(jvm.getJvmVersion());
+        hasher.putString(jvm.getArchitecture());
+        for (String jvmArg : javaCommand.getAllJvmArgs()) {
+            hasher.putString(jvmArg);
+        }
+        // The JVM refuses to use an archive when a jar on the classpath has changed, so include the jar identities in the key
+        for (File file : applicationClasspath) {
+            hasher.putString(file.getAbsolutePath());
+            hasher.putLong(file.length());
+            hasher.putLong(file.lastModified());
+        }
+        return hasher.hash().toString();
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+
+    /**
+     * An action to run once a worker daemon has stopped.
+     */
+    public interface StopAction {
+        StopAction NONE = new StopAction() {
+            @Override
+            public void stopped(ExecResult result) {
+            }
+        };
+
+        void stopped(ExecResult result);
+    }
+
+    /**
+     * Deletes the temporary archives of worker daemons that were killed before their archive could be moved into place.
+     */
+    private static class StaleTempArchiveCleanup extends AbstractCacheCleanup {
+        StaleTempArchiveCleanup() {
+            super(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP));
+        }
+
+        @Override
+        protected boolean shouldDelete(File file) {
+            return file.getName().endsWith(TEMP_ARCHIVE_SUFFIX) && file.lastModified() < System.currentTimeMillis() - STALE_TEMP_ARCHIVE_AGE;
+        }
+
+        @Override
+        protected void handleDeletion(File file) {
+        }
+    }
+}
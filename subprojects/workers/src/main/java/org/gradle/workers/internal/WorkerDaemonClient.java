@@ -18,6 +18,7 @@
 
 import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.process.ExecResult;
 import org.gradle.process.internal.health.memory.JvmMemoryStatus;
 import org.gradle.process.internal.worker.MultiRequestClient;
 import org.gradle.process.internal.worker.WorkerProcess;
@@ -29,16 +30,18 @@ class WorkerDaemonClient implements Stoppable {
     private final WorkerProcess workerProcess;
     private final LogLevel logLevel;
     private final ActionExecutionSpecFactory actionExecutionSpecFactory;
+    private final WorkerDaemonClassDataSharing.StopAction stopAction;
     private int uses;
     private boolean failed;
     private boolean cannotBeExpired = Boolean.getBoolean(DISABLE_EXPIRATION_PROPERTY_KEY);
 
-    public WorkerDaemonClient(DaemonForkOptions forkOptions, MultiRequestClient<TransportableActionExecutionSpec, DefaultWorkResult> workerClient, WorkerProcess workerProcess, LogLevel logLevel, ActionExecutionSpecFactory actionExecutionSpecFactory) {
+    public WorkerDaemonClient(DaemonForkOptions forkOptions, MultiRequestClient<TransportableActionExecutionSpec, DefaultWorkResult> workerClient, WorkerProcess workerProcess, LogLevel logLevel, ActionExecutionSpecFactory actionExecutionSpecFactory, WorkerDaemonClassDataSharing.StopAction stopAction) {
         this.forkOptions = forkOptions;
         this.workerClient = workerClient;
         this.workerProcess = workerProcess;
         this.logLevel = logLevel;
         this.actionExecutionSpecFactory = actionExecutionSpecFactory;
+        this.stopAction = stopAction;
     }
 
     public DefaultWorkResult execute(IsolatedParametersActionExecutionSpec<?> spec) {
@@ -56,7 +59,8 @@ JvmMemoryStatus getJvmMemoryStatus() {
 
     @Override
     public void stop() {
-        workerClient.stop();
+        ExecResult result = workerClient.stop();
+        stopAction.stopped(result);
     }
 
     DaemonForkOptions getForkOptions() {
@@ -101,9 +101,9 @@ WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerD
         }
     }
 
-    public WorkerDaemonClient reserveNewClient(DaemonForkOptions forkOptions) {
+    public WorkerDaemonClient reserveNewClient(DaemonForkOptions forkOptions, boolean classDataSharing) {
         //allow the daemon to be started concurrently
-        WorkerDaemonClient client = workerDaemonStarter.startDaemon(forkOptions, workerProcessCleanupAction);
+        WorkerDaemonClient client = workerDaemonStarter.startDaemon(forkOptions, workerProcessCleanupAction, classDataSharing);
         synchronized (lock) {
             allClients.add(client);
         }
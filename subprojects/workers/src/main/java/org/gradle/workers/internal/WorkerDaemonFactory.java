@@ -16,6 +16,7 @@
 
 package org.gradle.workers.internal;
 
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationRef;
 import org.gradle.internal.operations.CurrentBuildOperationRef;
@@ -29,10 +30,12 @@
 public class WorkerDaemonFactory implements WorkerFactory {
     private final WorkerDaemonClientsManager clientsManager;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final boolean classDataSharing;
 
-    public WorkerDaemonFactory(WorkerDaemonClientsManager clientsManager, BuildOperationExecutor buildOperationExecutor) {
+    public WorkerDaemonFactory(WorkerDaemonClientsManager clientsManager, BuildOperationExecutor buildOperationExecutor, InternalOptions internalOptions) {
         this.clientsManager = clientsManager;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.classDataSharing = internalOptions.getOption(WorkerDaemonClassDataSharing.ENABLED).get();
     }
 
     @Override
@@ -53,7 +56,7 @@ private WorkerDaemonClient reserveClient() {
                 DaemonForkOptions forkOptions = ((ForkedWorkerRequirement) workerRequirement).getForkOptions();
                 WorkerDaemonClient client = clientsManager.reserveIdleClient(forkOptions);
                 if (client == null) {
-                    client = clientsManager.reserveNewClient(forkOptions);
+                    client = clientsManager.reserveNewClient(forkOptions, classDataSharing);
                 }
                 return client;
             }
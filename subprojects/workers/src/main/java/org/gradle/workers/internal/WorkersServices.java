@@ -18,15 +18,20 @@
 
 import org.gradle.api.file.ProjectLayout;
 import org.gradle.api.internal.ClassPathRegistry;
+import org.gradle.api.internal.cache.CacheConfigurationsInternal;
+import org.gradle.cache.scopes.GlobalScopedCacheBuilderFactory;
 import org.gradle.concurrent.ParallelismConfiguration;
 import org.gradle.initialization.ClassLoaderRegistry;
 import org.gradle.initialization.GradleUserHomeDirProvider;
+import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.classpath.CachedClasspathTransformer;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.event.ListenerManager;
+import org.gradle.internal.file.FileAccessTimeJournal;
 import org.gradle.internal.hash.ClassLoaderHierarchyHasher;
 import org.gradle.internal.instantiation.InstantiatorFactory;
 import org.gradle.internal.isolation.IsolatableFactory;
+import org.gradle.internal.jvm.inspection.JvmMetadataDetector;
 import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.service.ServiceRegistration;
@@ -84,8 +89,18 @@ WorkerDaemonClientsManager createWorkerDaemonClientsManager(WorkerProcessFactory
                                                                     MemoryManager memoryManager,
                                                                     OsMemoryInfo memoryInfo,
                                                                     ClassPathRegistry classPathRegistry,
-                                                                    ActionExecutionSpecFactory actionExecutionSpecFactory) {
-            return new WorkerDaemonClientsManager(new WorkerDaemonStarter(workerFactory, loggingManager, classPathRegistry, actionExecutionSpecFactory), listenerManager, loggingManager, memoryManager, memoryInfo);
+                                                                    ActionExecutionSpecFactory actionExecutionSpecFactory,
+                                                                    WorkerDaemonClassDataSharing classDataSharing) {
+            return new WorkerDaemonClientsManager(new WorkerDaemonStarter(workerFactory, loggingManager, classPathRegistry, actionExecutionSpecFactory, classDataSharing), listenerManager, loggingManager, memoryManager, memoryInfo);
+        }
+
+        WorkerDaemonClassDataSharing createWorkerDaemonClassDataSharing(
+            GlobalScopedCacheBuilderFactory cacheBuilderFactory,
+            CacheConfigurationsInternal cacheConfigurations,
+            FileAccessTimeJournal fileAccessTimeJournal,
+            JvmMetadataDetector jvmMetadataDetector
+        ) {
+            return new WorkerDaemonClassDataSharing(cacheBuilderFactory, cacheConfigurations, fileAccessTimeJournal, jvmMetadataDetector);
         }
 
         ClassLoaderStructureProvider createClassLoaderStructureProvider(ClassLoaderRegistry classLoaderRegistry) {
@@ -115,7 +130,8 @@ WorkerExecutor createWorkerExecutor(InstantiatorFactory instantiatorFactory,
                                             ServiceRegistry projectServices,
                                             ActionExecutionSpecFactory actionExecutionSpecFactory,
                                             CachedClasspathTransformer classpathTransformer,
-                                            ProjectLayout projectLayout) {
+                                            ProjectLayout projectLayout,
+                                            InternalOptions internalOptions) {
             NoIsolationWorkerFactory noIsolationWorkerFactory = new NoIsolationWorkerFactory(buildOperationExecutor, instantiatorFactory, actionExecutionSpecFactory, projectServices);
 
             DefaultWorkerExecutor workerExecutor = instantiatorFactory.decorateLenient().newInstance(
@@ -133,13 +149,14 @@ WorkerExecutor createWorkerExecutor(InstantiatorFactory instantiatorFactory,
                 actionExecutionSpecFactory,
                 instantiatorFactory.decorateLenient(projectServices),
                 classpathTransformer,
-                projectLayout.getProjectDirectory().getAsFile());
+                projectLayout.getProjectDirectory().getAsFile(),
+                internalOptions);
             noIsolationWorkerFactory.setWorkerExecutor(workerExecutor);
             return workerExecutor;
         }
 
-        WorkerDaemonFactory createWorkerDaemonFactory(WorkerDaemonClientsManager workerDaemonClientsManager, BuildOperationExecutor buildOperationExecutor) {
-            return new WorkerDaemonFactory(workerDaemonClientsManager, buildOperationExecutor);
+        WorkerDaemonFactory createWorkerDaemonFactory(WorkerDaemonClientsManager workerDaemonClientsManager, BuildOperationExecutor buildOperationExecutor, InternalOptions internalOptions) {
+            return new WorkerDaemonFactory(workerDaemonClientsManager, buildOperationExecutor, internalOptions);
         }
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal
+
+import org.gradle.internal.serialize.Message
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import spock.lang.Specification
+
+class DefaultWorkResultSerializerTest extends Specification {
+    def serializer = new DefaultWorkResultSerializer()
+
+    def "can serialize and deserialize a successful result"() {
+        when:
+        def result = serialize(new DefaultWorkResult(didWork, null))
+
+        then:
+        result.didWork == didWork
+        result.success
+        result.exception == null
+
+        where:
+        didWork << [true, false]
+    }
+
+    def "can serialize and deserialize a failed result"() {
+        def failure = new RuntimeException("broken")
+
+        when:
+        def result = serialize(new DefaultWorkResult(true, failure))
+
+        then:
+        result.didWork
+        !result.success
+        result.exception.class == RuntimeException
+        result.exception.message == "broken"
+    }
+
+    def "successful result is much smaller than when using Java serialization"() {
+        def javaSerialized = new ByteArrayOutputStream()
+        Message.send(DefaultWorkResult.SUCCESS, javaSerialized)
+
+        expect:
+        toBytes(DefaultWorkResult.SUCCESS).length == 2
+        javaSerialized.size() > 50
+    }
+
+    private DefaultWorkResult serialize(DefaultWorkResult value) {
+        def decoder = new KryoBackedDecoder(new ByteArrayInputStream(toBytes(value)))
+        return serializer.read(decoder)
+    }
+
+    private byte[] toBytes(DefaultWorkResult value) {
+        def outputStream = new ByteArrayOutputStream()
+        def encoder = new KryoBackedEncoder(outputStream)
+        serializer.write(encoder, value)
+        encoder.flush()
+        return outputStream.toByteArray()
+    }
+}
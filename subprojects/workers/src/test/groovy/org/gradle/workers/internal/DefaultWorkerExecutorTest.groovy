@@ -19,9 +19,12 @@ package org.gradle.workers.internal
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.api.model.ObjectFactory
 import org.gradle.internal.Actions
+import org.gradle.internal.buildoption.DefaultInternalOptions
 import org.gradle.internal.classloader.VisitableURLClassLoader
 import org.gradle.internal.classpath.CachedClasspathTransformer
 import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.operations.BuildOperationRef
+import org.gradle.internal.operations.OperationIdentifier
 import org.gradle.internal.reflect.Instantiator
 import org.gradle.internal.work.AsyncWorkTracker
 import org.gradle.internal.work.ConditionalExecution
@@ -49,6 +52,10 @@ class DefaultWorkerExecutorTest extends Specification {
     def noIsolationWorkerFactory = Mock(WorkerFactory)
     def workerThreadRegistry = Mock(WorkerThreadRegistry)
     def buildOperationExecutor = Mock(BuildOperationExecutor)
+    def operationId = new OperationIdentifier(1)
+    def currentOperation = Stub(BuildOperationRef) {
+        getId() >> operationId
+    }
     def asyncWorkTracker = Mock(AsyncWorkTracker)
     def forkOptionsFactory = TestFiles.execFactory(temporaryFolder.testDirectory)
     def objectFactory = Stub(ObjectFactory) {
@@ -70,12 +77,13 @@ class DefaultWorkerExecutorTest extends Specification {
 
     def setup() {
         _ * executionQueueFactory.create() >> executionQueue
+        _ * buildOperationExecutor.currentOperation >> currentOperation
         _ * instantiator.newInstance(DefaultWorkerSpec) >> { args -> new DefaultWorkerSpec() }
         _ * instantiator.newInstance(DefaultClassLoaderWorkerSpec) >> { args -> new DefaultClassLoaderWorkerSpec(objectFactory) }
         _ * instantiator.newInstance(DefaultProcessWorkerSpec, _) >> { args -> new DefaultProcessWorkerSpec(args[1][0], objectFactory) }
         _ * instantiator.newInstance(DefaultWorkerExecutor.DefaultWorkQueue, _, _, _) >> { args -> new DefaultWorkerExecutor.DefaultWorkQueue(args[1][0], args[1][1], args[1][2]) }
         _ * classpathTransformer.transform(_, _) >> { args -> args[0] }
-        workerExecutor = new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, forkOptionsFactory, workerThreadRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, classLoaderStructureProvider, actionExecutionSpecFactory, instantiator, classpathTransformer, temporaryFolder.testDirectory)
+        workerExecutor = newWorkerExecutor([:])
         _ * actionExecutionSpecFactory.newIsolatedSpec(_, _, _, _, _) >> Mock(IsolatedParametersActionExecutionSpec)
     }
 
@@ -177,6 +185,23 @@ class DefaultWorkerExecutorTest extends Specification {
         }
     }
 
+    def "executor queues work separately per build operation when fair scheduling is enabled"() {
+        given:
+        workerExecutor = newWorkerExecutor([(DefaultWorkerExecutor.FAIR_SCHEDULING.systemPropertyName): "true"])
+
+        when:
+        workerExecutor.noIsolation().submit(TestExecutable.class, Actions.doNothing())
+
+        then:
+        1 * workerThreadRegistry.workerThread >> true
+        1 * executionQueue.submit(operationId, _)
+        0 * executionQueue.submit(_)
+    }
+
+    private DefaultWorkerExecutor newWorkerExecutor(Map<String, String> systemProperties) {
+        return new DefaultWorkerExecutor(workerDaemonFactory, inProcessWorkerFactory, noIsolationWorkerFactory, forkOptionsFactory, workerThreadRegistry, buildOperationExecutor, asyncWorkTracker, workerDirectoryProvider, executionQueueFactory, classLoaderStructureProvider, actionExecutionSpecFactory, instantiator, classpathTransformer, temporaryFolder.testDirectory, new DefaultInternalOptions(systemProperties))
+    }
+
     abstract static class TestExecutable implements WorkAction<WorkParameters.None> {
         @Override
         void execute() {
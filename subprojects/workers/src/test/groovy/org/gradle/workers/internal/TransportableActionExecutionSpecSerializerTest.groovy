@@ -68,6 +68,32 @@ class TransportableActionExecutionSpecSerializerTest extends Specification {
         decodedSpec.internalServicesRequired
     }
 
+    def "sends a hierarchical classloader structure once and then refers to it"() {
+        def structure = classLoaderStructure()
+        def spec1 = new TransportableActionExecutionSpec(Runnable.class.name, bytes, structure, new File("/foo"), usesInternalServices)
+        def spec2 = new TransportableActionExecutionSpec(Runnable.class.name, bytes, classLoaderStructure(), new File("/foo"), usesInternalServices)
+
+        when:
+        serializer.write(encoder, spec1)
+        encoder.flush()
+        def firstSize = outputStream.size()
+        serializer.write(encoder, spec2)
+        encoder.flush()
+        def secondSize = outputStream.size() - firstSize
+
+        and:
+        def decoder = new KryoBackedDecoder(new ByteArrayInputStream(outputStream.toByteArray()))
+        def readSerializer = new TransportableActionExecutionSpecSerializer()
+        def decodedSpec1 = readSerializer.read(decoder)
+        def decodedSpec2 = readSerializer.read(decoder)
+
+        then:
+        secondSize < firstSize / 2
+        decodedSpec1.classLoaderStructure == structure
+        decodedSpec2.classLoaderStructure.is(decodedSpec1.classLoaderStructure)
+        decodedSpec2.serializedParameters == spec2.serializedParameters
+    }
+
     def filteringClassloaderSpec() {
         def classNames = [ 'allowed.Class1', 'allowed.Class2' ]
         def disallowedClassNames = [ 'disallowed.Class1', 'disallowed.Class2' ]
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal
+
+import org.gradle.api.JavaVersion
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.cache.PersistentCache
+import org.gradle.internal.file.FileAccessTimeJournal
+import org.gradle.internal.jvm.inspection.JvmInstallationMetadata
+import org.gradle.internal.jvm.inspection.JvmMetadataDetector
+import org.gradle.process.ExecResult
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.UsesNativeServices
+import org.junit.Rule
+import spock.lang.Specification
+
+@UsesNativeServices
+class WorkerDaemonClassDataSharingTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
+
+    def jvmMetadataDetector = Mock(JvmMetadataDetector)
+    def fileAccessTimeJournal = Mock(FileAccessTimeJournal)
+    def archivesDir = temporaryFolder.file("archives")
+    def cache = Stub(PersistentCache) {
+        getBaseDir() >> archivesDir
+        useCache(_ as Runnable) >> { Runnable action -> action.run() }
+    }
+    def classpath = [temporaryFolder.file("lib.jar").createFile()]
+    def classDataSharing = new WorkerDaemonClassDataSharing(cache, fileAccessTimeJournal, jvmMetadataDetector)
+
+    def "does not use class data sharing for JVMs older than Java 13"() {
+        given:
+        jvmMetadataDetector.getMetadata(_) >> jvm(JavaVersion.VERSION_11)
+        def javaCommand = javaCommand()
+
+        when:
+        def stopAction = classDataSharing.configure(javaCommand, classpath)
+
+        then:
+        stopAction == WorkerDaemonClassDataSharing.StopAction.NONE
+        javaCommand.allJvmArgs.every { !it.startsWith("-XX:") && !it.startsWith("-Xlog:") }
+    }
+
+    def "first worker daemon creates archive that is used by later worker daemons"() {
+        given:
+        jvmMetadataDetector.getMetadata(_) >> jvm(JavaVersion.VERSION_17)
+
+        when:
+        def first = javaCommand()
+        def stopAction = classDataSharing.configure(first, classpath)
+        def tempArchive = archiveArg(first, "-XX:ArchiveClassesAtExit=")
+
+        then:
+        tempArchive != null
+        first.allJvmArgs.containsAll(["-Xlog:cds*=off", "-Xlog:class+path=off"])
+        archivesDir.listFiles().length == 0
+
+        when:
+        def concurrent = javaCommand()
+        classDataSharing.configure(concurrent, classpath)
+
+        then:
+        archiveArg(concurrent, "-XX:ArchiveClassesAtExit=") == null
+        archiveArg(concurrent, "-XX:SharedArchiveFile=") == null
+        concurrent.allJvmArgs.every { !it.startsWith("-Xlog:") }
+
+        when:
+        new File(tempArchive).text = "archive"
+        stopAction.stopped(Stub(ExecResult) { getExitValue() >> 0 })
+        def later = javaCommand()
+        classDataSharing.configure(later, classpath)
+
+        then:
+        !new File(tempArchive).exists()
+        def archive = archiveArg(later, "-XX:SharedArchiveFile=")
+        archive != null
+        new File(archive).text == "archive"
+        later.allJvmArgs.containsAll(["-Xlog:cds*=off", "-Xlog:class+path=off"])
+        2 * fileAccessTimeJournal.setLastAccessTime(new File(archive), _)
+    }
+
+    def "discards archive when worker daemon does not stop cleanly"() {
+        given:
+        jvmMetadataDetector.getMetadata(_) >> jvm(JavaVersion.VERSION_17)
+        def first = javaCommand()
+        def stopAction = classDataSharing.configure(first, classpath)
+        def tempArchive = new File(archiveArg(first, "-XX:ArchiveClassesAtExit="))
+        tempArchive.text = "partial"
+
+        when:
+        stopAction.stopped(Stub(ExecResult) { getExitValue() >> 1 })
+
+        then:
+        archivesDir.listFiles().length == 0
+
+        when:
+        def next = javaCommand()
+        classDataSharing.configure(next, classpath)
+
+        then:
+        archiveArg(next, "-XX:ArchiveClassesAtExit=") != null
+    }
+
+    def "uses a different archive when the classpath changes"() {
+        given:
+        jvmMetadataDetector.getMetadata(_) >> jvm(JavaVersion.VERSION_17)
+        def first = javaCommand()
+        classDataSharing.configure(first, classpath)
+
+        when:
+        def other = javaCommand()
+        classDataSharing.configure(other, [temporaryFolder.file("other.jar").createFile()])
+
+        then:
+        archiveArg(other, "-XX:ArchiveClassesAtExit=") != null
+        archiveArg(other, "-XX:ArchiveClassesAtExit=") != archiveArg(first, "-XX:ArchiveClassesAtExit=")
+    }
+
+    def "uses a different archive when the JVM build changes"() {
+        given:
+        jvmMetadataDetector.getMetadata(_) >>> [jvm(JavaVersion.VERSION_17, "17.0.7+7"), jvm(JavaVersion.VERSION_17, "17.0.8+7")]
+        def first = javaCommand()
+        classDataSharing.configure(first, classpath)
+
+        when:
+        def other = javaCommand()
+        classDataSharing.configure(other, classpath)
+
+        then:
+        archiveArg(other, "-XX:ArchiveClassesAtExit=") != null
+        archiveArg(other, "-XX:ArchiveClassesAtExit=") != archiveArg(first, "-XX:ArchiveClassesAtExit=")
+    }
+
+    def "does not use class data sharing when the JVM cannot be inspected"() {
+        given:
+        jvmMetadataDetector.getMetadata(_) >> JvmInstallationMetadata.failure(temporaryFolder.testDirectory, "broken")
+        def javaCommand = javaCommand()
+
+        when:
+        def stopAction = classDataSharing.configure(javaCommand, classpath)
+
+        then:
+        stopAction == WorkerDaemonClassDataSharing.StopAction.NONE
+        javaCommand.allJvmArgs.every { !it.startsWith("-XX:") }
+    }
+
+    def "does not use class data sharing when the JVM arguments configure it or attach an agent"() {
+        given:
+        def javaCommand = javaCommand()
+        javaCommand.jvmArgs(jvmArg)
+        def jvmArgs = javaCommand.allJvmArgs
+
+        when:
+        def stopAction = classDataSharing.configure(javaCommand, classpath)
+
+        then:
+        stopAction == WorkerDaemonClassDataSharing.StopAction.NONE
+        javaCommand.allJvmArgs == jvmArgs
+        0 * jvmMetadataDetector._
+
+        where:
+        jvmArg << [
+            "-Xshare:off",
+            "-XX:-UseSharedSpaces",
+            "-XX:SharedArchiveFile=other.jsa",
+            "-XX:ArchiveClassesAtExit=other.jsa",
+            "-javaagent:agent.jar",
+            "-agentlib:jdwp=transport=dt_socket"
+        ]
+    }
+
+    private JvmInstallationMetadata jvm(JavaVersion languageVersion, String runtimeVersion = "17.0.8+7") {
+        return Stub(JvmInstallationMetadata) {
+            isValidInstallation() >> true
+            getLanguageVersion() >> languageVersion
+            getRuntimeVersion() >> runtimeVersion
+        }
+    }
+
+    private javaCommand() {
+        return TestFiles.javaExecHandleFactory(temporaryFolder.testDirectory).newJavaExec()
+    }
+
+    private static String archiveArg(def javaCommand, String prefix) {
+        def arg = javaCommand.allJvmArgs.find { it.startsWith(prefix) }
+        return arg?.substring(prefix.length())
+    }
+}
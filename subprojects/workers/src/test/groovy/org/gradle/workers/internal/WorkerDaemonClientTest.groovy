@@ -58,7 +58,7 @@ class WorkerDaemonClientTest extends Specification {
             newTransportableSpec(_) >> { Mock(TransportableActionExecutionSpec) }
         }
         def workerProcess = workerDaemonProcess.start()
-        return new WorkerDaemonClient(daemonForkOptions, workerDaemonProcess, workerProcess, LogLevel.INFO, actionExecutionSpecFactory)
+        return new WorkerDaemonClient(daemonForkOptions, workerDaemonProcess, workerProcess, LogLevel.INFO, actionExecutionSpecFactory, WorkerDaemonClassDataSharing.StopAction.NONE)
     }
 
     def spec() {
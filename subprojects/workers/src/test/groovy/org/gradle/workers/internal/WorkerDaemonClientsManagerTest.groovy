@@ -68,10 +68,10 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
 
     def "reserves new client"() {
         def newClient = Stub(WorkerDaemonClient)
-        starter.startDaemon(options, _) >> newClient
+        starter.startDaemon(options, _, _) >> newClient
 
         when:
-        def client = manager.reserveNewClient(options)
+        def client = manager.reserveNewClient(options, false)
 
         then:
         newClient == client
@@ -80,11 +80,11 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
     def "can stop all created clients"() {
         def client1 = Mock(WorkerDaemonClient)
         def client2 = Mock(WorkerDaemonClient)
-        starter.startDaemon(options, _) >>> [client1, client2]
+        starter.startDaemon(options, _, _) >>> [client1, client2]
 
         when:
-        manager.reserveNewClient(options)
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
+        manager.reserveNewClient(options, false)
         manager.stop()
 
         then:
@@ -95,11 +95,11 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
     def "stops all other clients when a client fails to stop"() {
         def client1 = Mock(WorkerDaemonClient)
         def client2 = Mock(WorkerDaemonClient)
-        starter.startDaemon(options, _) >>> [client1, client2]
+        starter.startDaemon(options, _, _) >>> [client1, client2]
 
         when:
-        manager.reserveNewClient(options)
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
+        manager.reserveNewClient(options, false)
         manager.stop()
 
         then:
@@ -111,11 +111,11 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
     def "stopping a failed client removes the client"() {
         def client1 = Mock(WorkerDaemonClient)
         def client2 = Mock(WorkerDaemonClient)
-        starter.startDaemon(options, _) >>> [client1, client2]
+        starter.startDaemon(options, _, _) >>> [client1, client2]
 
         when:
-        manager.reserveNewClient(options)
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
+        manager.reserveNewClient(options, false)
         manager.stop()
 
         then:
@@ -130,11 +130,11 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
     def "exception contains all errors when multiple clients fail to stop"() {
         def client1 = Mock(WorkerDaemonClient)
         def client2 = Mock(WorkerDaemonClient)
-        starter.startDaemon(options, _) >>> [client1, client2]
+        starter.startDaemon(options, _, _) >>> [client1, client2]
 
         when:
-        manager.reserveNewClient(options)
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
+        manager.reserveNewClient(options, false)
         manager.stop()
 
         then:
@@ -152,11 +152,11 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
         def client1 = Mock(WorkerDaemonClient)
         def client2 = Mock(WorkerDaemonClient)
-        starter.startDaemon(options, _) >>> [client1, client2]
+        starter.startDaemon(options, _, _) >>> [client1, client2]
 
         when:
-        manager.reserveNewClient(options)
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
+        manager.reserveNewClient(options, false)
         listenerManager.getBroadcaster(BuildSessionLifecycleListener).beforeComplete()
 
         then:
@@ -171,11 +171,11 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
         def client1 = Mock(WorkerDaemonClient)
         def client2 = Mock(WorkerDaemonClient)
-        starter.startDaemon(options, _) >>> [client1, client2]
+        starter.startDaemon(options, _, _) >>> [client1, client2]
 
         when:
-        manager.reserveNewClient(options)
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
+        manager.reserveNewClient(options, false)
         listenerManager.getBroadcaster(BuildSessionLifecycleListener).beforeComplete()
 
         then:
@@ -190,10 +190,10 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
             isCompatibleWith(_) >> true
             getLogLevel() >> LogLevel.DEBUG
         }
-        starter.startDaemon(options, _) >> client
+        starter.startDaemon(options, _, _) >> client
 
         when:
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
 
         then:
         manager.reserveIdleClient(options) == null
@@ -211,7 +211,7 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
             isCompatibleWith(_) >> true
             getLogLevel() >> LogLevel.INFO
         }
-        starter.startDaemon(options, _) >> client
+        starter.startDaemon(options, _, _) >> client
         loggingManager.addOutputEventListener(_) >> { args -> listener = args[0] }
         loggingManager.getLevel() >> LogLevel.INFO
 
@@ -222,7 +222,7 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         listener != null
 
         when:
-        manager.reserveNewClient(options)
+        manager.reserveNewClient(options, false)
 
         then:
         manager.release(client)
@@ -240,7 +240,7 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         def client1 = Mock(WorkerDaemonClient) { _ * getUses() >> 5 }
         def client2 = Mock(WorkerDaemonClient) { _ * getUses() >> 1 }
         def client3 = Mock(WorkerDaemonClient) { _ * getUses() >> 3 }
-        starter.startDaemon(options, _) >>> [client1, client2, client3]
+        starter.startDaemon(options, _, _) >>> [client1, client2, client3]
         def stopMostPreferredClient = new Transformer<List<WorkerDaemonClient>, List<WorkerDaemonClient>>() {
             @Override
             List<WorkerDaemonClient> transform(List<WorkerDaemonClient> workerDaemonClients) {
@@ -249,7 +249,7 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         }
 
         when:
-        3.times { manager.reserveNewClient(options) }
+        3.times { manager.reserveNewClient(options, false) }
         [client1, client2, client3].each { manager.release(it) }
         manager.selectIdleClientsToStop(stopMostPreferredClient)
 
@@ -270,7 +270,7 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         def client1 = Mock(WorkerDaemonClient) { _ * getUses() >> 5 }
         def client2 = Mock(WorkerDaemonClient) { _ * getUses() >> 1 }
         def client3 = Mock(WorkerDaemonClient) { _ * getUses() >> 3 }
-        starter.startDaemon(options, _) >>> [client1, client2, client3]
+        starter.startDaemon(options, _, _) >>> [client1, client2, client3]
         def stopAll = new Transformer<List<WorkerDaemonClient>, List<WorkerDaemonClient>>() {
             @Override
             List<WorkerDaemonClient> transform(List<WorkerDaemonClient> workerDaemonClients) {
@@ -279,7 +279,7 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         }
 
         when:
-        3.times { manager.reserveNewClient(options) }
+        3.times { manager.reserveNewClient(options, false) }
         manager.release(client3)
         manager.selectIdleClientsToStop(stopAll)
 
@@ -41,7 +41,7 @@ class WorkerDaemonExpirationTest extends Specification {
     def threeGbOptions = daemonForkOptions('3g', '3g', ['three-gb-options'])
     def reportsMemoryUsage = true
     def daemonStarter = Mock(WorkerDaemonStarter) {
-        startDaemon(_, _) >> { DaemonForkOptions forkOptions, Action<WorkerProcess> cleanupAction ->
+        startDaemon(_, _, _) >> { DaemonForkOptions forkOptions, Action<WorkerProcess> cleanupAction, boolean classDataSharing ->
             Mock(WorkerDaemonClient) {
                 getForkOptions() >> forkOptions
                 isCompatibleWith(_) >> { DaemonForkOptions otherForkOptions ->
@@ -196,7 +196,7 @@ class WorkerDaemonExpirationTest extends Specification {
     }
 
     private WorkerDaemonClient reserveNewClient(DaemonForkOptions forkOptions) {
-        return clientsManager.reserveNewClient(forkOptions)
+        return clientsManager.reserveNewClient(forkOptions, false)
     }
 
     private WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions) {
@@ -16,6 +16,7 @@
 
 package org.gradle.workers.internal
 
+import org.gradle.internal.buildoption.DefaultInternalOptions
 import org.gradle.internal.operations.BuildOperationContext
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationRef
@@ -29,7 +30,7 @@ class WorkerDaemonFactoryTest extends Specification {
     def buildOperationExecutor = Mock(BuildOperationExecutor)
     def buildOperation = Mock(BuildOperationRef)
 
-    @Subject factory = new WorkerDaemonFactory(clientsManager, buildOperationExecutor)
+    @Subject factory = new WorkerDaemonFactory(clientsManager, buildOperationExecutor, new DefaultInternalOptions([:]))
 
     def workingDir = new File("some-dir")
     def options = Stub(DaemonForkOptions)
@@ -56,7 +57,7 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * clientsManager.reserveIdleClient(options) >> null
 
         then:
-        1 * clientsManager.reserveNewClient(options) >> client
+        1 * clientsManager.reserveNewClient(options, false) >> client
 
         then:
         1 * buildOperationExecutor.call(_) >> { args -> args[0].call(Stub(BuildOperationContext)) }
@@ -66,6 +67,20 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * clientsManager.release(client)
     }
 
+    def "new client uses class data sharing when enabled"() {
+        given:
+        def factory = new WorkerDaemonFactory(clientsManager, buildOperationExecutor, new DefaultInternalOptions([(WorkerDaemonClassDataSharing.ENABLED.systemPropertyName): "true"]))
+
+        when:
+        factory.getWorker(requirement).execute(spec)
+
+        then:
+        1 * clientsManager.reserveIdleClient(options) >> null
+
+        then:
+        1 * clientsManager.reserveNewClient(options, true) >> client
+    }
+
     def "idle client is reused when daemon is executed"() {
         when:
         factory.getWorker(requirement).execute(spec)